@@ -0,0 +1,749 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * AnchorLayout.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.LayoutManager2;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * The constraint layout which anchors the edges of a component to the edges of
+ * its parent or its siblings.
+ * <p>
+ * Each component has two variables: the horizontal one (X-axis and width) and
+ * the vertical one (Y-axis and height). The variable is solved from the
+ * anchors on its lower edge, its upper edge and its center. An axis with both
+ * edges anchored is stretched, an axis with one anchor keeps its free size,
+ * and an axis without any anchor keeps its initial position and free size.
+ * The free size is the size of the component when it is registered, or its
+ * preferred size if it has no size yet, and can be changed by
+ * {@link #setFreeSize(Component, int, int)}.
+ * </p>
+ * <p>
+ * The anchors form a dependency graph which is sorted once when it changes.
+ * The solution is kept across the layouts, so a layout after resizing only
+ * solves the variables depending on the changed dimension of the parent, and
+ * the variables depending on them, and only the components whose bounds
+ * actually changed are moved. A cyclic anchor raises an
+ * {@link IllegalStateException} in the next layout.
+ * </p>
+ * <p>
+ * A component can also be added with {@link ResizeLayout.Constraints}, whose
+ * {@link ResizeAdapter} policy is translated to the anchors to the parent.
+ * Unlike {@link ResizeAdapter}, the edges of the parent exclude its insets.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class AnchorLayout implements LayoutManager2
+{
+	/**
+	 * The left edge.
+	 */
+	public static final int						LEFT		= 0;
+	/**
+	 * The right edge.
+	 */
+	public static final int						RIGHT		= 1;
+	/**
+	 * The horizontal center.
+	 */
+	public static final int						CENTER_X	= 2;
+	/**
+	 * The top edge.
+	 */
+	public static final int						TOP			= 3;
+	/**
+	 * The bottom edge.
+	 */
+	public static final int						BOTTOM		= 4;
+	/**
+	 * The vertical center.
+	 */
+	public static final int						CENTER_Y	= 5;
+	/**
+	 * The target index for the parent.
+	 */
+	private static final int					PARENT		= -1;
+	/**
+	 * The target index for no anchor.
+	 */
+	private static final int					NONE		= -2;
+	/**
+	 * The indices of the registered components.
+	 */
+	private IdentityHashMap<Component, Integer>	indices		= new IdentityHashMap();
+	/**
+	 * The registered components.
+	 */
+	private Component[]							comps		= new Component[16];
+	/**
+	 * The amount of registered components.
+	 */
+	private int									count;
+	/**
+	 * The anchor targets of the variables. There are three anchors (lower
+	 * edge, upper edge, center) for each variable, the variable of component
+	 * <tt>i</tt> on axis <tt>a</tt> is <tt>i * 2 + a</tt>. The target is the
+	 * index of the component, {@link #PARENT} or {@link #NONE}.
+	 */
+	private int[]								targets		= new int[96];
+	/**
+	 * The target edges (0 lower, 1 upper, 2 center) of the anchors.
+	 */
+	private int[]								edges		= new int[96];
+	/**
+	 * The offsets of the anchors.
+	 */
+	private int[]								offsets		= new int[96];
+	/**
+	 * The solved positions of the variables.
+	 */
+	private int[]								pos			= new int[32];
+	/**
+	 * The solved sizes of the variables.
+	 */
+	private int[]								size		= new int[32];
+	/**
+	 * The initial positions of the variables.
+	 */
+	private int[]								origin		= new int[32];
+	/**
+	 * The free sizes of the variables.
+	 */
+	private int[]								free		= new int[32];
+	/**
+	 * The variables to be solved.
+	 */
+	private boolean[]							pending		= new boolean[32];
+	/**
+	 * The flags whether the components are moved and not laid out yet.
+	 */
+	private boolean[]							moved		= new boolean[16];
+	/**
+	 * The moved components not laid out yet.
+	 */
+	private int[]								movedList	= new int[16];
+	/**
+	 * The amount of the moved components not laid out yet.
+	 */
+	private int									moves;
+	/**
+	 * The variables in topological order.
+	 */
+	private int[]								order;
+	/**
+	 * The ranks of the variables in topological order.
+	 */
+	private int[]								rank;
+	/**
+	 * The dependent variables of each variable.
+	 */
+	private int[][]								dependents;
+	/**
+	 * The variables anchored to the parent, on X-axis and Y-axis.
+	 */
+	private int[][]								parentDeps	= new int[][] { {}, {} };
+	/**
+	 * The flag whether the dependency graph should be rebuilt.
+	 */
+	private boolean								structureChanged;
+	/**
+	 * The lowest rank of the pending variables.
+	 */
+	private int									firstPending;
+	/**
+	 * The edges of the parent in the last layout, stored as <tt>left, right,
+	 * top, bottom</tt>.
+	 */
+	private int[]								parentEdges	= new int[4];
+
+	/**
+	 * Anchor the edge of a component to the edge of its parent or a sibling.
+	 * The edges must be on the same axis. The previous anchor of the same edge
+	 * is replaced.
+	 * 
+	 * @param comp
+	 *            the component to anchor
+	 * @param edge
+	 *            the edge of the component, one of {@link #LEFT},
+	 *            {@link #RIGHT}, {@link #CENTER_X}, {@link #TOP},
+	 *            {@link #BOTTOM}, {@link #CENTER_Y}
+	 * @param target
+	 *            the sibling to anchor to, or <code>null</code> for the parent
+	 * @param targetEdge
+	 *            the edge of the target
+	 * @param offset
+	 *            the distance from the target edge to the component edge
+	 */
+	public void anchor(Component comp, int edge, Component target,
+			int targetEdge, int offset)
+	{
+		if (edge < LEFT || edge > CENTER_Y || targetEdge < LEFT
+				|| targetEdge > CENTER_Y || edge / 3 != targetEdge / 3)
+			throw new IllegalArgumentException(String.format(
+					Messages.getString("AnchorLayout.0"), edge, targetEdge)); //$NON-NLS-1$
+		int i = register(comp);
+		int t = target == null ? PARENT : register(target);
+		int a = (i * 2 + edge / 3) * 3 + edge % 3;
+		targets[a] = t;
+		edges[a] = targetEdge % 3;
+		offsets[a] = offset;
+		structureChanged = true;
+	}
+
+	/**
+	 * Remove the anchor of the edge of a component.
+	 * 
+	 * @param comp
+	 *            the anchored component
+	 * @param edge
+	 *            the edge of the component
+	 */
+	public void unanchor(Component comp, int edge)
+	{
+		Integer i = indices.get(comp);
+		if (i == null)
+			return;
+		targets[(i * 2 + edge / 3) * 3 + edge % 3] = NONE;
+		structureChanged = true;
+	}
+
+	/**
+	 * Anchor a component to its parent according to a {@link ResizeAdapter}
+	 * policy and margins.
+	 * 
+	 * @param comp
+	 *            the component to anchor
+	 * @param c
+	 *            the constraints with the policy and margins
+	 */
+	public void anchor(Component comp, ResizeLayout.Constraints c)
+	{
+		int i = register(comp);
+		for (int a = i * 6; a < i * 6 + 6; a++)
+			targets[a] = NONE;
+		structureChanged = true;
+		boolean top = false, bottom = false, left = false, right = false;
+		boolean cx = false, cy = false;
+		switch (c.policy)
+		{
+			default:
+			case ResizeAdapter.BOTH:
+				top = bottom = left = right = true;
+				break;
+			case ResizeAdapter.WIDTH_TOP:
+				left = right = top = true;
+				break;
+			case ResizeAdapter.WIDTH_BOTTOM:
+				left = right = bottom = true;
+				break;
+			case ResizeAdapter.HEIGHT_LEFT:
+				top = bottom = left = true;
+				break;
+			case ResizeAdapter.HEIGHT_RIGHT:
+				top = bottom = right = true;
+				break;
+			case ResizeAdapter.BORDER_TOP:
+				top = true;
+				break;
+			case ResizeAdapter.BORDER_TOP_LEFT:
+				top = left = true;
+				break;
+			case ResizeAdapter.BORDER_TOP_RIGHT:
+				top = right = true;
+				break;
+			case ResizeAdapter.BORDER_BOTTOM:
+				bottom = true;
+				break;
+			case ResizeAdapter.BORDER_BOTTOM_LEFT:
+				bottom = left = true;
+				break;
+			case ResizeAdapter.BORDER_BOTTOM_RIGHT:
+				bottom = right = true;
+				break;
+			case ResizeAdapter.BORDER_LEFT:
+				left = true;
+				break;
+			case ResizeAdapter.BORDER_RIGHT:
+				right = true;
+				break;
+			case ResizeAdapter.CENTER:
+				cx = cy = true;
+				break;
+			case ResizeAdapter.CENTER_HORIZONTAL_TOP:
+				cx = top = true;
+				break;
+			case ResizeAdapter.CENTER_HORIZONTAL_BOTTOM:
+				cx = bottom = true;
+				break;
+			case ResizeAdapter.CENTER_VERTICAL_LEFT:
+				cy = left = true;
+				break;
+			case ResizeAdapter.CENTER_VERTICAL_RIGHT:
+				cy = right = true;
+				break;
+		}
+		if (left)
+			anchor(comp, LEFT, null, LEFT, c.left);
+		if (right)
+			anchor(comp, RIGHT, null, RIGHT, -c.right);
+		if (cx)
+			anchor(comp, CENTER_X, null, CENTER_X, 0);
+		if (top)
+			anchor(comp, TOP, null, TOP, c.top);
+		if (bottom)
+			anchor(comp, BOTTOM, null, BOTTOM, -c.bottom);
+		if (cy)
+			anchor(comp, CENTER_Y, null, CENTER_Y, 0);
+	}
+
+	/**
+	 * Set the free size of the component, which is used on the axis not
+	 * stretched by the anchors.
+	 * 
+	 * @param comp
+	 *            the component
+	 * @param width
+	 *            the free width
+	 * @param height
+	 *            the free height
+	 */
+	public void setFreeSize(Component comp, int width, int height)
+	{
+		int i = register(comp);
+		free[i * 2] = width;
+		free[i * 2 + 1] = height;
+		mark(i * 2);
+		mark(i * 2 + 1);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#addLayoutComponent(java.awt.Component,
+	 *      java.lang.Object)
+	 */
+	@Override
+	public void addLayoutComponent(Component comp, Object constraints)
+	{
+		if (constraints instanceof ResizeLayout.Constraints)
+			anchor(comp, (ResizeLayout.Constraints) constraints);
+		else if (constraints == null)
+			register(comp);
+		else
+			throw new IllegalArgumentException(String.format(
+					Messages.getString("ResizeLayout.0"), constraints)); //$NON-NLS-1$
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#addLayoutComponent(java.lang.String,
+	 *      java.awt.Component)
+	 */
+	@Override
+	public void addLayoutComponent(String name, Component comp)
+	{
+		register(comp);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#removeLayoutComponent(java.awt.Component)
+	 */
+	@Override
+	public void removeLayoutComponent(Component comp)
+	{
+		Integer index = indices.remove(comp);
+		if (index == null)
+			return;
+		int removed = index, last = --count;
+		// anchors to the removed component are dropped
+		for (int a = 0; a < count * 6 + 6; a++)
+			if (targets[a] == removed)
+				targets[a] = NONE;
+		if (removed != last)
+		{
+			// move the last component to the removed slot
+			Component c = comps[last];
+			comps[removed] = c;
+			indices.put(c, removed);
+			System.arraycopy(targets, last * 6, targets, removed * 6, 6);
+			System.arraycopy(edges, last * 6, edges, removed * 6, 6);
+			System.arraycopy(offsets, last * 6, offsets, removed * 6, 6);
+			System.arraycopy(pos, last * 2, pos, removed * 2, 2);
+			System.arraycopy(size, last * 2, size, removed * 2, 2);
+			System.arraycopy(origin, last * 2, origin, removed * 2, 2);
+			System.arraycopy(free, last * 2, free, removed * 2, 2);
+			for (int a = 0; a < count * 6; a++)
+				if (targets[a] == last)
+					targets[a] = removed;
+		}
+		// the moved flag follows the last component to the removed slot
+		moved[removed] = moved[last];
+		moved[last] = false;
+		moves = 0;
+		for (int i = 0; i < count; i++)
+			if (moved[i])
+				movedList[moves++] = i;
+		comps[last] = null;
+		structureChanged = true;
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#layoutContainer(java.awt.Container)
+	 */
+	@Override
+	public void layoutContainer(Container parent)
+	{
+		LayoutMonitor monitor = LayoutMonitor.getDefault();
+		long time = monitor.begin();
+		solve(parent);
+		for (int k = 0; k < moves; k++)
+		{
+			int i = movedList[k];
+			moved[i] = false;
+			comps[i].setBounds(pos[i * 2], pos[i * 2 + 1], size[i * 2],
+					size[i * 2 + 1]);
+		}
+		moves = 0;
+		monitor.end(parent, time);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#preferredLayoutSize(java.awt.Container)
+	 */
+	@Override
+	public Dimension preferredLayoutSize(Container parent)
+	{
+		// the moved components are kept for the next layout
+		solve(parent);
+		int width = 0, height = 0;
+		for (int i = 0; i < count; i++)
+		{
+			width = Math.max(width, pos[i * 2] + size[i * 2]);
+			height = Math.max(height, pos[i * 2 + 1] + size[i * 2 + 1]);
+		}
+		Insets insets = parent.getInsets();
+		return new Dimension(width + insets.right, height + insets.bottom);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#minimumLayoutSize(java.awt.Container)
+	 */
+	@Override
+	public Dimension minimumLayoutSize(Container parent)
+	{
+		Insets insets = parent.getInsets();
+		return new Dimension(insets.left + insets.right, insets.top
+				+ insets.bottom);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#maximumLayoutSize(java.awt.Container)
+	 */
+	@Override
+	public Dimension maximumLayoutSize(Container target)
+	{
+		return new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#getLayoutAlignmentX(java.awt.Container)
+	 */
+	@Override
+	public float getLayoutAlignmentX(Container target)
+	{
+		return 0.5f;
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#getLayoutAlignmentY(java.awt.Container)
+	 */
+	@Override
+	public float getLayoutAlignmentY(Container target)
+	{
+		return 0.5f;
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#invalidateLayout(java.awt.Container)
+	 */
+	@Override
+	public void invalidateLayout(Container target)
+	{
+		// the solution is kept, changes are tracked by the anchors
+	}
+
+	/**
+	 * Solve the pending variables with the current dimension of the parent.
+	 * The components moved are added to {@link #movedList}.
+	 * 
+	 * @param parent
+	 *            the parent container
+	 */
+	private void solve(Container parent)
+	{
+		if (count == 0)
+			return;
+		if (structureChanged)
+			rebuild();
+		Insets insets = parent.getInsets();
+		int l = insets.left, r = parent.getWidth() - insets.right;
+		int t = insets.top, b = parent.getHeight() - insets.bottom;
+		if (l != parentEdges[0] || r != parentEdges[1])
+			for (int v : parentDeps[0])
+				mark(v);
+		if (t != parentEdges[2] || b != parentEdges[3])
+			for (int v : parentDeps[1])
+				mark(v);
+		parentEdges[0] = l;
+		parentEdges[1] = r;
+		parentEdges[2] = t;
+		parentEdges[3] = b;
+		int n = count * 2;
+		for (int k = firstPending; k < n; k++)
+		{
+			int v = order[k];
+			if (!pending[v])
+				continue;
+			pending[v] = false;
+			int p = pos[v], s = size[v];
+			solve(v);
+			if (p == pos[v] && s == size[v])
+				continue;
+			for (int d : dependents[v])
+				pending[d] = true;
+			int i = v / 2;
+			if (!moved[i])
+			{
+				moved[i] = true;
+				movedList[moves++] = i;
+			}
+		}
+		firstPending = n;
+	}
+
+	/**
+	 * Solve the specified variable from its anchors.
+	 * 
+	 * @param v
+	 *            the variable
+	 */
+	private void solve(int v)
+	{
+		int a = v * 3;
+		boolean lo = targets[a] != NONE;
+		boolean hi = targets[a + 1] != NONE;
+		boolean c = targets[a + 2] != NONE;
+		int vl = lo ? edge(v & 1, a) : 0;
+		int vh = hi ? edge(v & 1, a + 1) : 0;
+		int vc = c ? edge(v & 1, a + 2) : 0;
+		if (lo && hi)
+		{
+			pos[v] = vl;
+			size[v] = Math.max(0, vh - vl);
+		}
+		else if (lo && c)
+		{
+			pos[v] = vl;
+			size[v] = Math.max(0, 2 * (vc - vl));
+		}
+		else if (hi && c)
+		{
+			size[v] = Math.max(0, 2 * (vh - vc));
+			pos[v] = vh - size[v];
+		}
+		else if (lo)
+		{
+			pos[v] = vl;
+			size[v] = free[v];
+		}
+		else if (hi)
+		{
+			pos[v] = vh - free[v];
+			size[v] = free[v];
+		}
+		else if (c)
+		{
+			pos[v] = vc - free[v] / 2;
+			size[v] = free[v];
+		}
+		else
+		{
+			pos[v] = origin[v];
+			size[v] = free[v];
+		}
+	}
+
+	/**
+	 * Returns the value of the anchor target edge.
+	 * 
+	 * @param axis
+	 *            the axis, 0 for X-axis and 1 for Y-axis
+	 * @param a
+	 *            the anchor
+	 * @return the value of the target edge plus the offset
+	 */
+	private int edge(int axis, int a)
+	{
+		int t = targets[a], lo, hi;
+		if (t == PARENT)
+		{
+			lo = parentEdges[axis * 2];
+			hi = parentEdges[axis * 2 + 1];
+		}
+		else
+		{
+			int w = t * 2 + axis;
+			lo = pos[w];
+			hi = pos[w] + size[w];
+		}
+		switch (edges[a])
+		{
+			case 0:
+				return lo + offsets[a];
+			case 1:
+				return hi + offsets[a];
+			default:
+				return (lo + hi) / 2 + offsets[a];
+		}
+	}
+
+	/**
+	 * Mark the specified variable to be solved.
+	 * 
+	 * @param v
+	 *            the variable
+	 */
+	private void mark(int v)
+	{
+		pending[v] = true;
+		if (rank != null && rank.length > v && rank[v] < firstPending)
+			firstPending = rank[v];
+	}
+
+	/**
+	 * Rebuild the dependency graph and sort the variables in topological order.
+	 * All the variables are marked to be solved.
+	 * 
+	 * @throws IllegalStateException
+	 *             if the anchors are cyclic
+	 */
+	private void rebuild()
+	{
+		int n = count * 2;
+		int[] degree = new int[n];
+		int[] outs = new int[n];
+		ArrayList<int[]> px = new ArrayList(), py = new ArrayList();
+		for (int v = 0; v < n; v++)
+			for (int a = v * 3; a < v * 3 + 3; a++)
+				if (targets[a] >= 0)
+				{
+					degree[v]++;
+					outs[targets[a] * 2 + (v & 1)]++;
+				}
+		dependents = new int[n][];
+		for (int v = 0; v < n; v++)
+			dependents[v] = new int[outs[v]];
+		Arrays.fill(outs, 0);
+		int[] xs = new int[n], ys = new int[n];
+		int nx = 0, ny = 0;
+		for (int v = 0; v < n; v++)
+		{
+			boolean toParent = false;
+			for (int a = v * 3; a < v * 3 + 3; a++)
+				if (targets[a] >= 0)
+				{
+					int w = targets[a] * 2 + (v & 1);
+					dependents[w][outs[w]++] = v;
+				}
+				else if (targets[a] == PARENT)
+					toParent = true;
+			if (toParent)
+			{
+				if ((v & 1) == 0)
+					xs[nx++] = v;
+				else
+					ys[ny++] = v;
+			}
+		}
+		parentDeps = new int[][] { Arrays.copyOf(xs, nx), Arrays.copyOf(ys, ny) };
+		// Kahn's algorithm
+		order = new int[n];
+		rank = new int[n];
+		int head = 0, tail = 0;
+		for (int v = 0; v < n; v++)
+			if (degree[v] == 0)
+				order[tail++] = v;
+		while (head < tail)
+		{
+			int v = order[head];
+			rank[v] = head++;
+			for (int d : dependents[v])
+				if (--degree[d] == 0)
+					order[tail++] = d;
+		}
+		if (tail != n)
+			throw new IllegalStateException(
+					Messages.getString("AnchorLayout.1")); //$NON-NLS-1$
+		Arrays.fill(pending, 0, n, true);
+		firstPending = 0;
+		structureChanged = false;
+	}
+
+	/**
+	 * Register the specified component, capture its initial position and free
+	 * size.
+	 * 
+	 * @param comp
+	 *            the component
+	 * @return the index of the component
+	 */
+	private int register(Component comp)
+	{
+		Integer index = indices.get(comp);
+		if (index != null)
+			return index;
+		int i = count++;
+		if (i == comps.length)
+		{
+			int n = i * 2;
+			comps = Arrays.copyOf(comps, n);
+			moved = Arrays.copyOf(moved, n);
+			movedList = Arrays.copyOf(movedList, n);
+			targets = Arrays.copyOf(targets, n * 6);
+			edges = Arrays.copyOf(edges, n * 6);
+			offsets = Arrays.copyOf(offsets, n * 6);
+			pos = Arrays.copyOf(pos, n * 2);
+			size = Arrays.copyOf(size, n * 2);
+			origin = Arrays.copyOf(origin, n * 2);
+			free = Arrays.copyOf(free, n * 2);
+			pending = Arrays.copyOf(pending, n * 2);
+		}
+		comps[i] = comp;
+		indices.put(comp, i);
+		Arrays.fill(targets, i * 6, i * 6 + 6, NONE);
+		int w = comp.getWidth(), h = comp.getHeight();
+		if (w == 0 && h == 0)
+		{
+			Dimension d = comp.getPreferredSize();
+			w = d.width;
+			h = d.height;
+		}
+		origin[i * 2] = pos[i * 2] = comp.getX();
+		origin[i * 2 + 1] = pos[i * 2 + 1] = comp.getY();
+		free[i * 2] = size[i * 2] = w;
+		free[i * 2 + 1] = size[i * 2 + 1] = h;
+		// the seeded bounds are applied even if the solution keeps them
+		moved[i] = true;
+		movedList[moves++] = i;
+		structureChanged = true;
+		return i;
+	}
+}
@@ -0,0 +1,605 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * BlockStore.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.frank.swing.SnapshotEngine.Snapshot;
+
+/**
+ * The compressed and content-addressed store of the workspace history.
+ * <p>
+ * The <tt>BlockStore</tt> keeps the versions of the states of the
+ * {@link Recreatable} components. Each state is written by a
+ * {@link SnapshotEngine}, and split into blocks by content-defined chunking
+ * with a gear rolling hash, so that a change inside a state moves only the
+ * blocks around it. The blocks are addressed by their SHA-256 digests,
+ * compressed by {@link Lz4Codec}, and stored once however many components and
+ * versions share them, and a version is only a recipe of the block digests of
+ * each component. Therefore a version costs only the blocks really changed.
+ * The blocks are reference counted, and freed when the last version using
+ * them is dropped.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class BlockStore
+{
+	/**
+	 * The magic number of the stored stream.
+	 */
+	public static final int								MAGIC		= 0x424C4B53;
+	/**
+	 * The minimum size of a block.
+	 */
+	public static final int								MIN_BLOCK	= 256;
+	/**
+	 * The maximum size of a block.
+	 */
+	public static final int								MAX_BLOCK	= 16384;
+	/**
+	 * The mask of the gear hash to cut a block, which makes the blocks 2 KB on
+	 * average.
+	 */
+	private static final long							MASK		= 0x7FFL << 53;
+	/**
+	 * The random values of the bytes for the gear hash.
+	 */
+	private static final long[]							GEAR		= new long[256];
+	static
+	{
+		Random random = new Random(0x5EED);
+		for (int i = 0; i < GEAR.length; i++)
+			GEAR[i] = random.nextLong();
+	}
+	/**
+	 * The engine to write and read the states.
+	 */
+	protected final SnapshotEngine						engine;
+	/**
+	 * The blocks by their digests.
+	 */
+	private final Map<BlockId, Block>					blocks		= new HashMap();
+	/**
+	 * The recipes of the components by the versions.
+	 */
+	private final TreeMap<Integer, Map<String, BlockId[]>>	versions	= new TreeMap();
+	/**
+	 * The encoder of the states.
+	 */
+	private final SnapshotEncoder						out			= new SnapshotEncoder();
+	/**
+	 * The encoder of the payloads.
+	 */
+	private final SnapshotEncoder						scratch		= new SnapshotEncoder();
+	/**
+	 * The digest of the blocks.
+	 */
+	private final MessageDigest							digest;
+	/**
+	 * The next version number.
+	 */
+	private int											next		= 1;
+
+	/**
+	 * Construct an empty instance of <tt>BlockStore</tt>.
+	 * 
+	 * @param engine
+	 *            the engine to write and read the states
+	 */
+	public BlockStore(SnapshotEngine engine)
+	{
+		this.engine = engine;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// every Java platform supports SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Commit a version of the states of the components.
+	 * 
+	 * @param components
+	 *            the components by their keys
+	 * @return the version number
+	 * @throws IOException
+	 *             if a state cannot be written
+	 */
+	public int commitComponents(Map<String, ? extends Recreatable> components)
+			throws IOException
+	{
+		Map<String, Object> states = new LinkedHashMap();
+		for (Entry<String, ? extends Recreatable> e : components.entrySet())
+			states.put(e.getKey(), e.getValue().extract());
+		return commit(states);
+	}
+
+	/**
+	 * Commit a version of the states.
+	 * 
+	 * @param states
+	 *            the states by the keys of the components
+	 * @return the version number
+	 * @throws IOException
+	 *             if a state cannot be written
+	 */
+	public synchronized int commit(Map<String, ?> states) throws IOException
+	{
+		// encode all the states first, so that a failure references no block
+		Map<String, byte[]> encoded = new LinkedHashMap();
+		for (Entry<String, ?> e : states.entrySet())
+		{
+			out.reset();
+			engine.writeState(out, e.getValue(), scratch);
+			encoded.put(e.getKey(), out.toByteArray());
+		}
+		Map<String, BlockId[]> recipes = new LinkedHashMap();
+		List<BlockId> ids = new ArrayList();
+		for (Entry<String, byte[]> e : encoded.entrySet())
+		{
+			byte[] bytes = e.getValue();
+			ids.clear();
+			for (int start = 0; start < bytes.length;)
+			{
+				int end = cut(bytes, start);
+				ids.add(put(bytes, start, end - start));
+				start = end;
+			}
+			recipes.put(e.getKey(), ids.toArray(new BlockId[ids.size()]));
+		}
+		int version = next++;
+		versions.put(version, recipes);
+		return version;
+	}
+
+	/**
+	 * Returns the end of the block starting at the offset, cut where the gear
+	 * hash of the content matches the mask.
+	 * 
+	 * @param bytes
+	 *            the bytes to split
+	 * @param start
+	 *            the start of the block
+	 * @return the end of the block, exclusive
+	 */
+	static int cut(byte[] bytes, int start)
+	{
+		int end = Math.min(bytes.length, start + MAX_BLOCK);
+		if (end - start <= MIN_BLOCK)
+			return end;
+		long h = 0;
+		for (int i = start; i < end; i++)
+		{
+			h = (h << 1) + GEAR[bytes[i] & 0xFF];
+			if (i - start >= MIN_BLOCK && (h & MASK) == 0)
+				return i + 1;
+		}
+		return end;
+	}
+
+	/**
+	 * Store a block, or reference the stored block of the same content.
+	 * 
+	 * @param bytes
+	 *            the bytes
+	 * @param off
+	 *            the offset of the block
+	 * @param len
+	 *            the length of the block
+	 * @return the digest of the block
+	 */
+	private BlockId put(byte[] bytes, int off, int len)
+	{
+		digest.update(bytes, off, len);
+		BlockId id = new BlockId(digest.digest());
+		Block block = blocks.get(id);
+		if (block == null)
+		{
+			byte[] data = Lz4Codec.compress(bytes, off, len);
+			boolean compressed = data.length < len;
+			if (!compressed)
+				data = Arrays.copyOfRange(bytes, off, off + len);
+			blocks.put(id, block = new Block(data, len, compressed));
+		}
+		block.refs++;
+		return id;
+	}
+
+	/**
+	 * Returns the entries of a version, whose payloads are not decoded yet.
+	 * 
+	 * @param version
+	 *            the version number
+	 * @return the entries
+	 * @throws IOException
+	 *             if the version is unknown or a block is malformed
+	 */
+	public synchronized List<Snapshot> entries(int version) throws IOException
+	{
+		Map<String, BlockId[]> recipes = versions.get(version);
+		if (recipes == null)
+			throw new IOException(String.format(
+					Messages.getString("BlockStore.1"), version)); //$NON-NLS-1$
+		List<Snapshot> entries = new ArrayList(recipes.size());
+		for (Entry<String, BlockId[]> e : recipes.entrySet())
+			entries.add(engine.readState(new SnapshotDecoder(join(e
+					.getValue())), e.getKey()));
+		return entries;
+	}
+
+	/**
+	 * Join the blocks of a recipe.
+	 * 
+	 * @param recipe
+	 *            the digests of the blocks
+	 * @return the joined bytes
+	 * @throws IOException
+	 *             if a block is malformed
+	 */
+	private byte[] join(BlockId[] recipe) throws IOException
+	{
+		if (recipe.length == 1)
+			return blocks.get(recipe[0]).bytes();
+		int n = 0;
+		for (BlockId id : recipe)
+			n += blocks.get(id).length;
+		byte[] bytes = new byte[n];
+		n = 0;
+		for (BlockId id : recipe)
+		{
+			Block block = blocks.get(id);
+			System.arraycopy(block.bytes(), 0, bytes, n, block.length);
+			n += block.length;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the states of a version, the entries of the unknown codecs are
+	 * skipped.
+	 * 
+	 * @param version
+	 *            the version number
+	 * @return the states by the keys of the components
+	 * @throws IOException
+	 *             if the version is unknown or a state cannot be decoded
+	 */
+	public Map<String, Object> checkout(int version) throws IOException
+	{
+		Map<String, Object> states = new LinkedHashMap();
+		for (Snapshot entry : entries(version))
+			if (engine.isKnown(entry))
+				states.put(entry.key, engine.decode(entry));
+		return states;
+	}
+
+	/**
+	 * Recreate the components from a version.
+	 * 
+	 * @param version
+	 *            the version number
+	 * @param components
+	 *            the components by their keys
+	 * @return the amount of the components recreated
+	 * @throws IOException
+	 *             if the version is unknown or a state cannot be decoded
+	 */
+	public int restore(int version,
+			Map<String, ? extends Recreatable> components) throws IOException
+	{
+		int count = 0;
+		for (Entry<String, Object> e : checkout(version).entrySet())
+		{
+			Recreatable r = components.get(e.getKey());
+			if (r != null)
+			{
+				r.recreate(e.getValue());
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Drop a version, the blocks used only by it are freed.
+	 * 
+	 * @param version
+	 *            the version number
+	 * @return <code>true</code> if the version is dropped
+	 */
+	public synchronized boolean drop(int version)
+	{
+		Map<String, BlockId[]> recipes = versions.remove(version);
+		if (recipes == null)
+			return false;
+		for (BlockId[] recipe : recipes.values())
+			for (BlockId id : recipe)
+			{
+				Block block = blocks.get(id);
+				if (--block.refs == 0)
+					blocks.remove(id);
+			}
+		return true;
+	}
+
+	/**
+	 * Returns the version numbers in ascending order.
+	 * 
+	 * @return the version numbers
+	 */
+	public synchronized Set<Integer> versions()
+	{
+		return Collections.unmodifiableSet(new TreeSet(versions
+				.keySet()));
+	}
+
+	/**
+	 * Returns the amount of the blocks stored.
+	 * 
+	 * @return the amount of the blocks
+	 */
+	public synchronized int getBlockCount()
+	{
+		return blocks.size();
+	}
+
+	/**
+	 * Returns the size of the blocks stored in bytes.
+	 * 
+	 * @return the stored size
+	 */
+	public synchronized long getStoredSize()
+	{
+		long size = 0;
+		for (Block block : blocks.values())
+			size += block.data.length;
+		return size;
+	}
+
+	/**
+	 * Returns the size of all the versions before deduplication and
+	 * compression in bytes.
+	 * 
+	 * @return the logical size
+	 */
+	public synchronized long getLogicalSize()
+	{
+		long size = 0;
+		for (Map<String, BlockId[]> recipes : versions.values())
+			for (BlockId[] recipe : recipes.values())
+				for (BlockId id : recipe)
+					size += blocks.get(id).length;
+		return size;
+	}
+
+	/**
+	 * Write the blocks and the versions to the stream.
+	 * 
+	 * @param os
+	 *            the output stream
+	 * @throws IOException
+	 *             if an I/O error occurred
+	 */
+	public synchronized void writeTo(OutputStream os) throws IOException
+	{
+		SnapshotEncoder out = new SnapshotEncoder();
+		out.writeInt(MAGIC);
+		out.writeUnsigned(blocks.size());
+		Map<BlockId, Integer> indices = new HashMap();
+		for (Entry<BlockId, Block> e : blocks.entrySet())
+		{
+			Block block = e.getValue();
+			indices.put(e.getKey(), indices.size());
+			out.writeBytes(e.getKey().digest);
+			out.writeBoolean(block.compressed);
+			out.writeUnsigned(block.length);
+			out.writeBytes(block.data);
+		}
+		out.writeUnsigned(next);
+		out.writeUnsigned(versions.size());
+		for (Entry<Integer, Map<String, BlockId[]>> v : versions.entrySet())
+		{
+			out.writeUnsigned(v.getKey());
+			out.writeUnsigned(v.getValue().size());
+			for (Entry<String, BlockId[]> e : v.getValue().entrySet())
+			{
+				out.writeString(e.getKey());
+				out.writeUnsigned(e.getValue().length);
+				for (BlockId id : e.getValue())
+					out.writeUnsigned(indices.get(id));
+			}
+		}
+		out.writeTo(os);
+	}
+
+	/**
+	 * Read the blocks and the versions written by
+	 * {@link #writeTo(OutputStream)}.
+	 * 
+	 * @param is
+	 *            the input stream
+	 * @param engine
+	 *            the engine to write and read the states
+	 * @return the block store read
+	 * @throws IOException
+	 *             if an I/O error occurred or the stream is malformed
+	 */
+	public static BlockStore read(InputStream is, SnapshotEngine engine)
+			throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		for (int n; (n = is.read(buffer)) > 0;)
+			bytes.write(buffer, 0, n);
+		SnapshotDecoder in = new SnapshotDecoder(ByteBuffer.wrap(bytes
+				.toByteArray()));
+		if (in.readInt() != MAGIC)
+			throw new StreamCorruptedException(
+					Messages.getString("BlockStore.0")); //$NON-NLS-1$
+		BlockStore store = new BlockStore(engine);
+		BlockId[] ids = new BlockId[in.readUnsigned()];
+		for (int i = 0; i < ids.length; i++)
+		{
+			ids[i] = new BlockId(in.readBytes());
+			boolean compressed = in.readBoolean();
+			int length = in.readUnsigned();
+			store.blocks.put(ids[i], new Block(in.readBytes(), length,
+					compressed));
+		}
+		store.next = in.readUnsigned();
+		for (int v = in.readUnsigned(); v > 0; v--)
+		{
+			Map<String, BlockId[]> recipes = new LinkedHashMap();
+			store.versions.put(in.readUnsigned(), recipes);
+			for (int n = in.readUnsigned(); n > 0; n--)
+			{
+				String key = in.readString();
+				BlockId[] recipe = new BlockId[in.readUnsigned()];
+				for (int i = 0; i < recipe.length; i++)
+				{
+					int index = in.readUnsigned();
+					if (index < 0 || index >= ids.length)
+						throw new StreamCorruptedException(
+								Messages.getString("BlockStore.0")); //$NON-NLS-1$
+					recipe[i] = ids[index];
+					store.blocks.get(recipe[i]).refs++;
+				}
+				recipes.put(key, recipe);
+			}
+		}
+		return store;
+	}
+
+	/**
+	 * The digest of a block.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static final class BlockId
+	{
+		/**
+		 * The digest.
+		 */
+		final byte[]	digest;
+		/**
+		 * The hash code.
+		 */
+		final int		hash;
+
+		/**
+		 * Construct an instance of <tt>BlockId</tt>.
+		 * 
+		 * @param digest
+		 *            the digest
+		 */
+		BlockId(byte[] digest)
+		{
+			this.digest = digest;
+			this.hash = Arrays.hashCode(digest);
+		}
+
+		/**
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		/**
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof BlockId
+					&& Arrays.equals(digest, ((BlockId) obj).digest);
+		}
+	}
+
+	/**
+	 * The stored block.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static final class Block
+	{
+		/**
+		 * The stored data.
+		 */
+		final byte[]	data;
+		/**
+		 * The raw length.
+		 */
+		final int		length;
+		/**
+		 * The flag whether the data is compressed.
+		 */
+		final boolean	compressed;
+		/**
+		 * The amount of the references from the versions.
+		 */
+		int				refs;
+
+		/**
+		 * Construct an instance of <tt>Block</tt>.
+		 * 
+		 * @param data
+		 *            the stored data
+		 * @param length
+		 *            the raw length
+		 * @param compressed
+		 *            the flag whether the data is compressed
+		 */
+		Block(byte[] data, int length, boolean compressed)
+		{
+			this.data = data;
+			this.length = length;
+			this.compressed = compressed;
+		}
+
+		/**
+		 * Returns the raw bytes.
+		 * 
+		 * @return the raw bytes
+		 * @throws IOException
+		 *             if the data is malformed
+		 */
+		byte[] bytes() throws IOException
+		{
+			return compressed ? Lz4Codec.decompress(data, 0, data.length,
+					length) : data;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * CancellationToken.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * The token of cooperative cancellation and backpressure.
+ * <p>
+ * The <tt>CancellationToken</tt> is shared between the controller of a job
+ * and its workers. The controller calls {@link #cancel()}, and the workers
+ * poll {@link #isCancelled()}, which costs a single volatile read, between
+ * their items or batches. Once cancelled, a token stays cancelled.
+ * </p>
+ * <p>
+ * The consumer of the results, typically the user interface, may also signal
+ * a backpressure level in <tt>[0, 1]</tt> by {@link #setPressure(double)},
+ * where <code>0</code> means it keeps up and <code>1</code> means it falls
+ * far behind. The producers may read it by {@link #getPressure()} or
+ * {@link #suggestBatchSize(int, int)} to adapt their batch sizes.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class CancellationToken
+{
+	/**
+	 * The flag whether the job is cancelled.
+	 */
+	private volatile boolean	cancelled;
+	/**
+	 * The backpressure level.
+	 */
+	private volatile double		pressure;
+
+	/**
+	 * Cancel the job. The workers stop when they poll the token next time.
+	 */
+	public void cancel()
+	{
+		cancelled = true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the job is cancelled.
+	 * 
+	 * @return <code>true</code> if cancelled
+	 */
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+
+	/**
+	 * Throw a {@link CancellationException} if the job is cancelled.
+	 * 
+	 * @throws CancellationException
+	 *             if the job is cancelled
+	 */
+	public void checkCancelled()
+	{
+		if (cancelled)
+			throw new CancellationException();
+	}
+
+	/**
+	 * Set the backpressure level, which is clamped into <tt>[0, 1]</tt>.
+	 * 
+	 * @param pressure
+	 *            the backpressure level
+	 */
+	public void setPressure(double pressure)
+	{
+		this.pressure = pressure > 0 ? Math.min(pressure, 1) : 0;
+	}
+
+	/**
+	 * Returns the backpressure level.
+	 * 
+	 * @return the backpressure level in <tt>[0, 1]</tt>
+	 */
+	public double getPressure()
+	{
+		return pressure;
+	}
+
+	/**
+	 * Returns the batch size suggested by the backpressure, which grows
+	 * linearly from <code>min</code> when the consumer keeps up to
+	 * <code>max</code> when it falls far behind, so that the producers publish
+	 * fewer and larger batches under pressure.
+	 * 
+	 * @param min
+	 *            the batch size without pressure
+	 * @param max
+	 *            the batch size with full pressure
+	 * @return the suggested batch size
+	 */
+	public int suggestBatchSize(int min, int max)
+	{
+		return min + (int) ((max - min) * pressure);
+	}
+}
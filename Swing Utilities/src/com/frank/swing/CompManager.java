@@ -5,14 +5,29 @@
 package com.frank.swing;
 
 import java.awt.Component;
+import java.awt.Container;
 import java.awt.Dimension;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ItemListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.Vector;
 
 import javax.swing.AbstractButton;
 import javax.swing.JComponent;
+import javax.swing.JInternalFrame;
+import javax.swing.event.ChangeListener;
 
 /**
  * The internal frame (view) menu manager.
@@ -21,6 +36,18 @@ import javax.swing.JComponent;
  * binder, the internal frames are binded to buttons according to their indices.
  * The action of button perform is defined by {@link ViewActoin}.
  * </p>
+ * <p>
+ * A button can also be binded to a {@link ComponentFactory} instead of a
+ * component. The component is created when the button is first activated, and
+ * may be disposed when it is idle and the lazy capacity is exceeded. The state
+ * of a disposed {@link Recreatable} component is extracted and restored when
+ * it is created again.
+ * </p>
+ * <p>
+ * If a {@link ComponentPool} is set, the removed components are released to
+ * the pool, and the {@link Recyclable} ones are handed back to the following
+ * binds of the same type.
+ * </p>
  * 
  * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
  * @param <C>
@@ -51,6 +78,24 @@ public class CompManager<C extends Component, B extends AbstractButton>
 	 * The map for the parent components of buttons.
 	 */
 	protected HashMap<B, JComponent>	buttonParents;
+	/**
+	 * The lazy entries of buttons which are binded to component factories.
+	 */
+	protected HashMap<B, LazyEntry>		lazyEntries	= new HashMap();
+	/**
+	 * The created lazy components of buttons in access order.
+	 */
+	protected LinkedHashMap<B, C>		lazyComps	= new LinkedHashMap(16,
+															0.75f, true);
+	/**
+	 * The maximum amount of created lazy components, non-positive value for
+	 * unlimited.
+	 */
+	protected int						lazyCapacity;
+	/**
+	 * The pool for the removed components, or <code>null</code> if not pooled.
+	 */
+	protected ComponentPool<C>			pool;
 
 	/**
 	 * Construct an instance of <tt>CompManager</tt>.
@@ -174,25 +219,224 @@ public class CompManager<C extends Component, B extends AbstractButton>
 			if (cp != null)
 				cp.remove(comp);
 			B button = buttons.remove(index);
+			forget(button);
 			JComponent bp = buttonParents.remove(button);
 			if (bp != null)
 				bp.remove(button);
+			recycle(comp);
 		}
 	}
 
 	/**
 	 * Clear all the components and buttons in this manager.
+	 * <p>
+	 * The components and buttons are detached from their parents in one batch,
+	 * each parent is revalidated only once.
+	 * </p>
 	 */
 	public void clear()
 	{
-		buttons.clear();
+		long time = System.nanoTime();
+		Map<JComponent, List<Component>> detach = new LinkedHashMap();
 		for (Entry<B, JComponent> e : buttonParents.entrySet())
-			e.getValue().remove(e.getKey());
+			group(detach, e.getValue(), e.getKey());
+		for (Entry<C, JComponent> e : compParents.entrySet())
+			group(detach, e.getValue(), e.getKey());
+		for (B button : buttons)
+			forget(button);
+		List<C> removed = new ArrayList(comps);
+		buttons.clear();
 		buttonParents.clear();
 		comps.clear();
-		for (Entry<C, JComponent> e : compParents.entrySet())
-			e.getValue().remove(e.getKey());
 		compParents.clear();
+		finishBatch(new BatchStatistics(), time, detach, false);
+		for (C comp : removed)
+			recycle(comp);
+	}
+
+	/**
+	 * Bind all the entries of component and button in the specified map to
+	 * this manager and add them to the specified parent components.
+	 * <p>
+	 * This is the batched form of {@link #bind(Component, JComponent,
+	 * AbstractButton, JComponent)}. The component actions are still performed
+	 * for each couple, but the containers are not validated until all the
+	 * couples are added. At last, each affected parent is validated and
+	 * repainted only once.
+	 * </p>
+	 * 
+	 * @param map
+	 *            the specified map of components and buttons
+	 * @param cp
+	 *            the parent component for the components
+	 * @param bp
+	 *            the parent component for the buttons
+	 * @return the time consumed in each phase of the batch
+	 */
+	public BatchStatistics bindAll(Map<C, B> map, JComponent cp, JComponent bp)
+	{
+		BatchStatistics stat = new BatchStatistics();
+		long time = System.nanoTime();
+		for (Entry<C, B> e : map.entrySet())
+			put(e.getKey(), e.getValue());
+		long now = System.nanoTime();
+		stat.modelTime = now - time;
+		time = now;
+		for (Entry<C, B> e : map.entrySet())
+		{
+			B button = e.getValue();
+			bp.add(button);
+			buttonParents.put(button, bp);
+			C comp = e.getKey();
+			cp.add(comp);
+			compParents.put(comp, cp);
+		}
+		now = System.nanoTime();
+		stat.attachTime = now - time;
+		stat.count = map.size();
+		Set<Container> parents = new LinkedHashSet();
+		parents.add(bp);
+		parents.add(cp);
+		validate(stat, parents);
+		return stat;
+	}
+
+	/**
+	 * Remove all the specified components and their buttons from this manager
+	 * and from their parent components.
+	 * <p>
+	 * This is the batched form of {@link #remove(Component)}, each affected
+	 * parent is validated and repainted only once.
+	 * </p>
+	 * 
+	 * @param comps
+	 *            the components to remove
+	 * @return the time consumed in each phase of the batch
+	 */
+	public BatchStatistics removeAll(Collection<? extends C> comps)
+	{
+		long time = System.nanoTime();
+		Map<JComponent, List<Component>> detach = new LinkedHashMap();
+		List<C> removed = new ArrayList();
+		for (C comp : comps)
+		{
+			int index = this.comps.indexOf(comp);
+			if (index == -1)
+				continue;
+			this.comps.remove(index);
+			B button = buttons.remove(index);
+			forget(button);
+			group(detach, buttonParents.remove(button), button);
+			group(detach, compParents.remove(comp), comp);
+			removed.add(comp);
+		}
+		BatchStatistics stat = new BatchStatistics();
+		stat.count = removed.size();
+		finishBatch(stat, time, detach, true);
+		for (C comp : removed)
+			recycle(comp);
+		return stat;
+	}
+
+	/**
+	 * Detach the grouped children from their parents and validate the parents.
+	 * 
+	 * @param stat
+	 *            the statistics to fill
+	 * @param time
+	 *            the start time of the model phase
+	 * @param detach
+	 *            the children to detach grouped by their parents
+	 * @param validate
+	 *            <code>true</code> if the parents should be validated
+	 *            synchronously, otherwise they are only revalidated
+	 * @return the filled statistics
+	 */
+	private BatchStatistics finishBatch(BatchStatistics stat, long time,
+			Map<JComponent, List<Component>> detach, boolean validate)
+	{
+		long now = System.nanoTime();
+		stat.modelTime = now - time;
+		time = now;
+		for (Entry<JComponent, List<Component>> e : detach.entrySet())
+		{
+			JComponent parent = e.getKey();
+			List<Component> children = e.getValue();
+			int n = children.size();
+			boolean all = n == parent.getComponentCount();
+			for (int i = 0; all && i < n; i++)
+				all = children.get(i).getParent() == parent;
+			if (all)
+				parent.removeAll();
+			else
+				// remove from the tail, where the container shifts the least
+				for (int i = n - 1; i >= 0; i--)
+					parent.remove(children.get(i));
+		}
+		now = System.nanoTime();
+		stat.attachTime = now - time;
+		if (validate)
+			validate(stat, detach.keySet());
+		else
+		{
+			for (JComponent parent : detach.keySet())
+			{
+				parent.revalidate();
+				parent.repaint();
+			}
+			stat.parents = detach.size();
+		}
+		return stat;
+	}
+
+	/**
+	 * Validate the validate roots of specified parents once and repaint the
+	 * parents.
+	 * 
+	 * @param stat
+	 *            the statistics to fill
+	 * @param parents
+	 *            the affected parents
+	 */
+	private static void validate(BatchStatistics stat,
+			Collection<? extends Container> parents)
+	{
+		long time = System.nanoTime();
+		Set<Container> roots = new LinkedHashSet();
+		for (Container parent : parents)
+		{
+			Container root = parent;
+			while (!root.isValidateRoot() && root.getParent() != null)
+				root = root.getParent();
+			roots.add(root);
+		}
+		for (Container root : roots)
+			root.validate();
+		for (Container parent : parents)
+			parent.repaint();
+		stat.validateTime = System.nanoTime() - time;
+		stat.parents = parents.size();
+	}
+
+	/**
+	 * Group the specified child to its parent.
+	 * 
+	 * @param map
+	 *            the group map
+	 * @param parent
+	 *            the parent, <code>null</code> is ignored
+	 * @param child
+	 *            the child
+	 */
+	private static void group(Map<JComponent, List<Component>> map,
+			JComponent parent, Component child)
+	{
+		if (parent == null)
+			return;
+		List<Component> children = map.get(parent);
+		if (children == null)
+			map.put(parent, children = new ArrayList());
+		children.add(child);
 	}
 
 	/**
@@ -206,12 +450,14 @@ public class CompManager<C extends Component, B extends AbstractButton>
 	{
 		C comp = comps.remove(index);
 		B button = buttons.remove(index);
+		forget(button);
 		JComponent bp = buttonParents.remove(button);
 		if (bp != null)
 			bp.remove(button);
 		JComponent cp = compParents.remove(comp);
 		if (cp != null)
 			cp.remove(comp);
+		recycle(comp);
 	}
 
 	/**
@@ -227,6 +473,7 @@ public class CompManager<C extends Component, B extends AbstractButton>
 		if (index != -1)
 		{
 			buttons.remove(index);
+			forget(button);
 			JComponent bp = buttonParents.remove(button);
 			if (bp != null)
 				bp.remove(button);
@@ -234,6 +481,261 @@ public class CompManager<C extends Component, B extends AbstractButton>
 			JComponent cp = compParents.remove(comp);
 			if (cp != null)
 				cp.remove(comp);
+			recycle(comp);
+		}
+	}
+
+	/**
+	 * Put a couple of component factory and button to this manager. The
+	 * component is created when the button is first activated.
+	 * 
+	 * @param factory
+	 *            the factory of the component
+	 * @param button
+	 *            the button to put into
+	 */
+	public void putLazy(ComponentFactory<? extends C> factory, B button)
+	{
+		bindLazy(factory, null, button, null);
+	}
+
+	/**
+	 * Add the specified component factory and button into this manager. The
+	 * button is added to the specified parent component at once, the component
+	 * is created and added to its parent component when the button is first
+	 * activated.
+	 * 
+	 * @param factory
+	 *            the factory of the component
+	 * @param cp
+	 *            the parent component for the created component, or
+	 *            <code>null</code> if the component has no parent
+	 * @param button
+	 *            the specified button
+	 * @param bp
+	 *            the parent component for the specified button, or
+	 *            <code>null</code> if the button has no parent
+	 */
+	public void bindLazy(ComponentFactory<? extends C> factory, JComponent cp,
+			B button, JComponent bp)
+	{
+		comps.add(null);
+		buttons.add(button);
+		LazyEntry entry = new LazyEntry(factory, cp);
+		lazyEntries.put(button, entry);
+		button.addActionListener(entry);
+		if (bp != null)
+		{
+			bp.add(button);
+			buttonParents.put(button, bp);
+		}
+	}
+
+	/**
+	 * Set the maximum amount of created lazy components. When more lazy
+	 * components are created, the least recently used ones which are not
+	 * showing are disposed.
+	 * 
+	 * @param capacity
+	 *            the maximum amount, non-positive value for unlimited
+	 */
+	public void setLazyCapacity(int capacity)
+	{
+		lazyCapacity = capacity;
+		evict(null);
+	}
+
+	/**
+	 * Returns the maximum amount of created lazy components.
+	 * 
+	 * @return the maximum amount, non-positive value for unlimited
+	 */
+	public int getLazyCapacity()
+	{
+		return lazyCapacity;
+	}
+
+	/**
+	 * Returns <code>true</code> if the component at specified index has been
+	 * created.
+	 * 
+	 * @param index
+	 *            component index
+	 * @return <code>true</code> if the component has been created
+	 */
+	public boolean isCreated(int index)
+	{
+		return comps.elementAt(index) != null;
+	}
+
+	/**
+	 * Returns the component at specified index, create it if it is a lazy
+	 * component which has not been created yet.
+	 * 
+	 * @param index
+	 *            component index
+	 * @return the component
+	 */
+	protected C materialize(int index)
+	{
+		C comp = comps.elementAt(index);
+		B button = buttons.elementAt(index);
+		LazyEntry entry = lazyEntries.get(button);
+		if (entry == null)
+			return comp;
+		if (comp == null)
+		{
+			comp = entry.type == null || pool == null ? entry.factory.create()
+					: (C) pool.acquire(entry.type, entry.factory);
+			entry.type = comp.getClass();
+			if (entry.state != null && comp instanceof Recreatable)
+				((Recreatable) comp).recreate(entry.state);
+			entry.state = null;
+			comps.set(index, comp);
+			entry.install(comp, button);
+			if (entry.parent != null)
+			{
+				entry.parent.add(comp);
+				compParents.put(comp, entry.parent);
+				entry.parent.revalidate();
+			}
+		}
+		lazyComps.put(button, comp);
+		evict(button);
+		return comp;
+	}
+
+	/**
+	 * Dispose the least recently used lazy components which are not showing
+	 * until the lazy capacity is satisfied.
+	 * 
+	 * @param keep
+	 *            the button whose component must be kept, or <code>null</code>
+	 */
+	protected void evict(B keep)
+	{
+		if (lazyCapacity <= 0)
+			return;
+		int excess = lazyComps.size() - lazyCapacity;
+		Iterator<Entry<B, C>> it = lazyComps.entrySet().iterator();
+		while (excess > 0 && it.hasNext())
+		{
+			Entry<B, C> e = it.next();
+			B button = e.getKey();
+			C comp = e.getValue();
+			if (button == keep || comp.isShowing())
+				continue;
+			it.remove();
+			excess--;
+			dispose(button, comp);
+		}
+	}
+
+	/**
+	 * Dispose the created lazy component of specified button. The state of a
+	 * {@link Recreatable} component is kept for its recreation.
+	 * 
+	 * @param button
+	 *            the button of the component
+	 * @param comp
+	 *            the component to dispose
+	 */
+	protected void dispose(B button, C comp)
+	{
+		LazyEntry entry = lazyEntries.get(button);
+		if (comp instanceof Recreatable)
+			entry.state = ((Recreatable) comp).extract();
+		entry.uninstall(button);
+		comps.set(buttons.indexOf(button), null);
+		JComponent cp = compParents.remove(comp);
+		if (cp != null)
+		{
+			cp.remove(comp);
+			cp.revalidate();
+			cp.repaint();
+		}
+		if (pool != null)
+			pool.release(comp);
+		else if (comp instanceof Window)
+			((Window) comp).dispose();
+		else if (comp instanceof JInternalFrame)
+			((JInternalFrame) comp).dispose();
+	}
+
+	/**
+	 * Add a component of specified type, which is taken from the pool or
+	 * created by the specified factory, and the specified button into this
+	 * manager and add them to specified parent component.
+	 * 
+	 * @param type
+	 *            the exact type of the component
+	 * @param factory
+	 *            the factory to create the component if the pool is empty
+	 * @param cp
+	 *            the parent component for the component
+	 * @param button
+	 *            the specified button
+	 * @param bp
+	 *            the parent component for the specified button
+	 * @return the binded component
+	 */
+	public <T extends C> T bind(Class<T> type,
+			ComponentFactory<? extends T> factory, JComponent cp, B button,
+			JComponent bp)
+	{
+		T comp = pool == null ? factory.create() : pool.acquire(type, factory);
+		bind(comp, cp, button, bp);
+		return comp;
+	}
+
+	/**
+	 * Set the pool for the removed components.
+	 * 
+	 * @param pool
+	 *            the component pool, or <code>null</code> if the removed
+	 *            components should not be pooled
+	 */
+	public void setPool(ComponentPool<C> pool)
+	{
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the pool for the removed components.
+	 * 
+	 * @return the component pool, or <code>null</code> if not pooled
+	 */
+	public ComponentPool<C> getPool()
+	{
+		return pool;
+	}
+
+	/**
+	 * Release the removed component to the pool if there is one.
+	 * 
+	 * @param comp
+	 *            the removed component, <code>null</code> is ignored
+	 */
+	private void recycle(C comp)
+	{
+		if (pool != null && comp != null)
+			pool.release(comp);
+	}
+
+	/**
+	 * Forget the lazy entry of specified button which is removed from this
+	 * manager.
+	 * 
+	 * @param button
+	 *            the removed button
+	 */
+	private void forget(B button)
+	{
+		LazyEntry entry = lazyEntries.remove(button);
+		if (entry != null)
+		{
+			button.removeActionListener(entry);
+			lazyComps.remove(button);
 		}
 	}
 
@@ -258,7 +760,8 @@ public class CompManager<C extends Component, B extends AbstractButton>
 	public void addCompsTo(JComponent parent)
 	{
 		for (C b : comps)
-			parent.add(b);
+			if (b != null)
+				parent.add(b);
 	}
 
 	/**
@@ -308,7 +811,8 @@ public class CompManager<C extends Component, B extends AbstractButton>
 	public void setCompSize(Dimension size)
 	{
 		for (C c : comps)
-			c.setSize(size);
+			if (c != null)
+				c.setSize(size);
 	}
 
 	/**
@@ -348,7 +852,8 @@ public class CompManager<C extends Component, B extends AbstractButton>
 	}
 
 	/**
-	 * Returns the component according to its index.
+	 * Returns the component according to its index. The lazy component is
+	 * created if it has not been created yet.
 	 * 
 	 * @param index
 	 *            component index
@@ -356,7 +861,7 @@ public class CompManager<C extends Component, B extends AbstractButton>
 	 */
 	public C getComp(int index)
 	{
-		return comps.elementAt(index);
+		return materialize(index);
 	}
 
 	/**
@@ -371,7 +876,7 @@ public class CompManager<C extends Component, B extends AbstractButton>
 		int index = indexOf(button);
 		if (index == -1)
 			return null;
-		return comps.elementAt(index);
+		return materialize(index);
 	}
 
 	/**
@@ -412,7 +917,8 @@ public class CompManager<C extends Component, B extends AbstractButton>
 	}
 
 	/**
-	 * Get all the components.
+	 * Get all the components. The element of a lazy component which has not
+	 * been created yet is <code>null</code>.
 	 * 
 	 * @return the component vector
 	 */
@@ -430,4 +936,248 @@ public class CompManager<C extends Component, B extends AbstractButton>
 	{
 		return action;
 	}
+
+	/**
+	 * The entry of a button binded to a component factory.
+	 * <p>
+	 * The entry creates the component when the button is first activated. The
+	 * listeners installed to the button by the component action are recorded,
+	 * so that they can be removed when the component is disposed.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	protected class LazyEntry implements ActionListener
+	{
+		/**
+		 * The factory of the component.
+		 */
+		protected ComponentFactory<? extends C>	factory;
+		/**
+		 * The type of the created component, used to acquire a pooled one.
+		 */
+		protected Class							type;
+		/**
+		 * The parent component for the component.
+		 */
+		protected JComponent					parent;
+		/**
+		 * The extracted state of the disposed component.
+		 */
+		protected Object						state;
+		/**
+		 * The action listeners installed by the component action.
+		 */
+		protected ActionListener[]				actionListeners;
+		/**
+		 * The item listeners installed by the component action.
+		 */
+		protected ItemListener[]				itemListeners;
+		/**
+		 * The change listeners installed by the component action.
+		 */
+		protected ChangeListener[]				changeListeners;
+
+		/**
+		 * Construct an instance of <tt>LazyEntry</tt>.
+		 * 
+		 * @param factory
+		 *            the factory of the component
+		 * @param parent
+		 *            the parent component for the component
+		 */
+		protected LazyEntry(ComponentFactory<? extends C> factory,
+				JComponent parent)
+		{
+			this.factory = factory;
+			this.parent = parent;
+		}
+
+		/**
+		 * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+		 */
+		@Override
+		public void actionPerformed(ActionEvent e)
+		{
+			int index = buttons.indexOf(e.getSource());
+			if (index == -1)
+				return;
+			boolean created = comps.elementAt(index) == null;
+			materialize(index);
+			// the listeners installed during this event missed it
+			if (created && actionListeners != null)
+				for (ActionListener l : actionListeners)
+					l.actionPerformed(e);
+		}
+
+		/**
+		 * Perform the component action and record the listeners installed.
+		 * 
+		 * @param comp
+		 *            the created component
+		 * @param button
+		 *            the button
+		 */
+		protected void install(C comp, B button)
+		{
+			ActionListener[] al = button.getActionListeners();
+			ItemListener[] il = button.getItemListeners();
+			ChangeListener[] cl = button.getChangeListeners();
+			action.perform(comp, button);
+			action.recall(comp, button);
+			actionListeners = added(al, button.getActionListeners());
+			itemListeners = added(il, button.getItemListeners());
+			changeListeners = added(cl, button.getChangeListeners());
+		}
+
+		/**
+		 * Remove the listeners recorded from the button.
+		 * 
+		 * @param button
+		 *            the button
+		 */
+		protected void uninstall(B button)
+		{
+			if (actionListeners != null)
+				for (ActionListener l : actionListeners)
+					button.removeActionListener(l);
+			if (itemListeners != null)
+				for (ItemListener l : itemListeners)
+					button.removeItemListener(l);
+			if (changeListeners != null)
+				for (ChangeListener l : changeListeners)
+					button.removeChangeListener(l);
+			actionListeners = null;
+			itemListeners = null;
+			changeListeners = null;
+		}
+	}
+
+	/**
+	 * Returns the listeners in <tt>after</tt> but not in <tt>before</tt>.
+	 * 
+	 * @param before
+	 *            the listeners before
+	 * @param after
+	 *            the listeners after
+	 * @return the added listeners
+	 */
+	private static <T> T[] added(T[] before, T[] after)
+	{
+		List<T> list = new ArrayList();
+		List<T> old = Arrays.asList(before);
+		for (T t : after)
+			if (!old.contains(t))
+				list.add(t);
+		return list.toArray(Arrays.copyOf(after, 0));
+	}
+
+	/**
+	 * The time statistics of a batch operation in <tt>CompManager</tt>.
+	 * <p>
+	 * A batch operation has three phases: the model phase updates the
+	 * components and buttons managed and performs the component actions; the
+	 * attach phase adds or removes the components and buttons to or from their
+	 * parents; the validate phase lays out each affected parent once.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	public static class BatchStatistics
+	{
+		/**
+		 * The nanoseconds consumed in the model phase.
+		 */
+		protected long	modelTime;
+		/**
+		 * The nanoseconds consumed in the attach phase.
+		 */
+		protected long	attachTime;
+		/**
+		 * The nanoseconds consumed in the validate phase.
+		 */
+		protected long	validateTime;
+		/**
+		 * The amount of component and button couples in the batch.
+		 */
+		protected int	count;
+		/**
+		 * The amount of parents affected by the batch.
+		 */
+		protected int	parents;
+
+		/**
+		 * Returns the nanoseconds consumed in the model phase.
+		 * 
+		 * @return the nanoseconds of the model phase
+		 */
+		public long getModelTime()
+		{
+			return modelTime;
+		}
+
+		/**
+		 * Returns the nanoseconds consumed in the attach phase.
+		 * 
+		 * @return the nanoseconds of the attach phase
+		 */
+		public long getAttachTime()
+		{
+			return attachTime;
+		}
+
+		/**
+		 * Returns the nanoseconds consumed in the validate phase.
+		 * 
+		 * @return the nanoseconds of the validate phase
+		 */
+		public long getValidateTime()
+		{
+			return validateTime;
+		}
+
+		/**
+		 * Returns the total nanoseconds consumed in the batch.
+		 * 
+		 * @return the total nanoseconds
+		 */
+		public long getTotalTime()
+		{
+			return modelTime + attachTime + validateTime;
+		}
+
+		/**
+		 * Returns the amount of component and button couples in the batch.
+		 * 
+		 * @return the amount of couples
+		 */
+		public int getCount()
+		{
+			return count;
+		}
+
+		/**
+		 * Returns the amount of parents affected by the batch.
+		 * 
+		 * @return the amount of parents
+		 */
+		public int getParents()
+		{
+			return parents;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			return String.format(
+					"%d couples, %d parents: model %.3fms, attach %.3fms, validate %.3fms", //$NON-NLS-1$
+					count, parents, modelTime / 1e6, attachTime / 1e6,
+					validateTime / 1e6);
+		}
+	}
 }
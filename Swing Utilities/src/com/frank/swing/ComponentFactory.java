@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ComponentFactory.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Component;
+
+/**
+ * The component factory interface.
+ * <p>
+ * The <tt>ComponentFactory</tt> creates a component on demand. It is used by
+ * {@link CompManager} to bind a button to a component which has not been
+ * created yet.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @param <C>
+ *            the type of component
+ * @version 1.0.0
+ */
+public interface ComponentFactory<C extends Component>
+{
+	/**
+	 * Create a new instance of the component.
+	 * 
+	 * @return the created component
+	 */
+	public C create();
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ComponentPool.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Window;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+
+import javax.swing.JInternalFrame;
+
+/**
+ * The component pool.
+ * <p>
+ * The <tt>ComponentPool</tt> keeps the released components by their types and
+ * hands them back when a component of the same type is acquired, which saves
+ * the creation and the UI delegate installation of the components. The
+ * released component is reset by {@link #reset(Component)}, which calls
+ * {@link Recyclable#recycle()} by default. Other components cannot be reset,
+ * and keep the listeners installed when they were binded, so they are
+ * discarded instead of pooled.
+ * </p>
+ * <p>
+ * The hits and misses of each type are counted to help sizing the pools. Like
+ * other Swing objects, the pool is not thread-safe and should be used in the
+ * event dispatch thread.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @param <C>
+ *            the type of component
+ * @version 1.0.0
+ */
+public class ComponentPool<C extends Component>
+{
+	/**
+	 * The pool slots by component types.
+	 */
+	protected HashMap<Class<?>, Slot>	slots;
+	/**
+	 * The default maximum amount of pooled components of each type.
+	 */
+	protected int						capacity;
+
+	/**
+	 * Construct an instance of <tt>ComponentPool</tt> which keeps at most
+	 * <tt>16</tt> components of each type.
+	 */
+	public ComponentPool()
+	{
+		this(16);
+	}
+
+	/**
+	 * Construct an instance of <tt>ComponentPool</tt> which keeps at most
+	 * <tt>capacity</tt> components of each type.
+	 * 
+	 * @param capacity
+	 *            the maximum amount of pooled components of each type
+	 */
+	public ComponentPool(int capacity)
+	{
+		if (capacity < 0)
+			throw new IllegalArgumentException(
+					Messages.getString("ComponentPool.0")); //$NON-NLS-1$
+		this.capacity = capacity;
+		slots = new HashMap();
+	}
+
+	/**
+	 * Acquire a pooled component of specified type.
+	 * 
+	 * @param type
+	 *            the exact type of the component
+	 * @return the pooled component, or <code>null</code> if the pool of the
+	 *         type is empty
+	 */
+	public <T extends C> T acquire(Class<T> type)
+	{
+		Slot slot = slot(type);
+		C comp = slot.pool.poll();
+		if (comp == null)
+		{
+			slot.misses++;
+			return null;
+		}
+		slot.hits++;
+		return type.cast(comp);
+	}
+
+	/**
+	 * Acquire a pooled component of specified type, create one by the
+	 * specified factory if the pool of the type is empty.
+	 * 
+	 * @param type
+	 *            the exact type of the component
+	 * @param factory
+	 *            the factory to create the component
+	 * @return the pooled or created component
+	 */
+	public <T extends C> T acquire(Class<T> type,
+			ComponentFactory<? extends T> factory)
+	{
+		T comp = acquire(type);
+		return comp == null ? factory.create() : comp;
+	}
+
+	/**
+	 * Release the specified component to the pool. The component is removed
+	 * from its parent and reset. If the pool of its type is full, or the
+	 * component cannot be reset, the component is discarded.
+	 * 
+	 * @param comp
+	 *            the component to release
+	 * @return <code>true</code> if the component is pooled,
+	 *         <code>false</code> if it is discarded
+	 */
+	public boolean release(C comp)
+	{
+		Container parent = comp.getParent();
+		if (parent != null)
+			parent.remove(comp);
+		Slot slot = slot(comp.getClass());
+		if (slot.pool.size() >= slot.capacity || !reset(comp))
+		{
+			slot.discards++;
+			discard(comp);
+			return false;
+		}
+		slot.pool.push(comp);
+		slot.releases++;
+		return true;
+	}
+
+	/**
+	 * Reset the released component to its initial state. Only the
+	 * {@link Recyclable} components are reset by default.
+	 * 
+	 * @param comp
+	 *            the released component
+	 * @return <code>true</code> if the component is reset and can be pooled,
+	 *         <code>false</code> if it should be discarded
+	 */
+	protected boolean reset(C comp)
+	{
+		if (!(comp instanceof Recyclable))
+			return false;
+		((Recyclable) comp).recycle();
+		return true;
+	}
+
+	/**
+	 * Discard the released component which cannot be pooled.
+	 * 
+	 * @param comp
+	 *            the component to discard
+	 */
+	protected void discard(C comp)
+	{
+		if (comp instanceof Window)
+			((Window) comp).dispose();
+		else if (comp instanceof JInternalFrame)
+			((JInternalFrame) comp).dispose();
+	}
+
+	/**
+	 * Discard all the pooled components and reset the counters.
+	 */
+	public void clear()
+	{
+		for (Slot slot : slots.values())
+			for (C comp : slot.pool)
+				discard(comp);
+		slots.clear();
+	}
+
+	/**
+	 * Set the maximum amount of pooled components of specified type.
+	 * 
+	 * @param type
+	 *            the exact type of the component
+	 * @param capacity
+	 *            the maximum amount
+	 */
+	public void setCapacity(Class<? extends C> type, int capacity)
+	{
+		if (capacity < 0)
+			throw new IllegalArgumentException(
+					Messages.getString("ComponentPool.0")); //$NON-NLS-1$
+		Slot slot = slot(type);
+		slot.capacity = capacity;
+		while (slot.pool.size() > capacity)
+			discard(slot.pool.pollLast());
+	}
+
+	/**
+	 * Returns the amount of pooled components of specified type.
+	 * 
+	 * @param type
+	 *            the exact type of the component
+	 * @return the amount of pooled components
+	 */
+	public int size(Class<? extends C> type)
+	{
+		Slot slot = slots.get(type);
+		return slot == null ? 0 : slot.pool.size();
+	}
+
+	/**
+	 * Returns the times a component of specified type is acquired from the
+	 * pool.
+	 * 
+	 * @param type
+	 *            the exact type of the component, or <code>null</code> for all
+	 *            the types
+	 * @return the hit times
+	 */
+	public long getHits(Class<? extends C> type)
+	{
+		long n = 0;
+		for (Slot slot : slots(type))
+			n += slot.hits;
+		return n;
+	}
+
+	/**
+	 * Returns the times a component of specified type is acquired while the
+	 * pool is empty.
+	 * 
+	 * @param type
+	 *            the exact type of the component, or <code>null</code> for all
+	 *            the types
+	 * @return the miss times
+	 */
+	public long getMisses(Class<? extends C> type)
+	{
+		long n = 0;
+		for (Slot slot : slots(type))
+			n += slot.misses;
+		return n;
+	}
+
+	/**
+	 * Returns the times a component of specified type is released to the pool.
+	 * 
+	 * @param type
+	 *            the exact type of the component, or <code>null</code> for all
+	 *            the types
+	 * @return the release times
+	 */
+	public long getReleases(Class<? extends C> type)
+	{
+		long n = 0;
+		for (Slot slot : slots(type))
+			n += slot.releases;
+		return n;
+	}
+
+	/**
+	 * Returns the times a component of specified type is discarded since the
+	 * pool is full.
+	 * 
+	 * @param type
+	 *            the exact type of the component, or <code>null</code> for all
+	 *            the types
+	 * @return the discard times
+	 */
+	public long getDiscards(Class<? extends C> type)
+	{
+		long n = 0;
+		for (Slot slot : slots(type))
+			n += slot.discards;
+		return n;
+	}
+
+	/**
+	 * Returns the ratio of hits to acquirements of specified type.
+	 * 
+	 * @param type
+	 *            the exact type of the component, or <code>null</code> for all
+	 *            the types
+	 * @return the hit ratio, or <code>0</code> if never acquired
+	 */
+	public double getHitRatio(Class<? extends C> type)
+	{
+		long hits = getHits(type);
+		long total = hits + getMisses(type);
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Returns the slot of specified type, create one if absent.
+	 * 
+	 * @param type
+	 *            the exact type of the component
+	 * @return the slot
+	 */
+	private Slot slot(Class<?> type)
+	{
+		Slot slot = slots.get(type);
+		if (slot == null)
+			slots.put(type, slot = new Slot(capacity));
+		return slot;
+	}
+
+	/**
+	 * Returns the slots of specified type.
+	 * 
+	 * @param type
+	 *            the exact type, or <code>null</code> for all the types
+	 * @return the slots
+	 */
+	private Iterable<Slot> slots(Class<?> type)
+	{
+		if (type == null)
+			return slots.values();
+		Slot slot = slots.get(type);
+		if (slot == null)
+			return Collections.emptySet();
+		return Collections.singleton(slot);
+	}
+
+	/**
+	 * The pool slot of a component type.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	protected class Slot
+	{
+		/**
+		 * The pooled components, the last released first.
+		 */
+		protected ArrayDeque<C>	pool	= new ArrayDeque();
+		/**
+		 * The maximum amount of pooled components.
+		 */
+		protected int			capacity;
+		/**
+		 * The hit times.
+		 */
+		protected long			hits;
+		/**
+		 * The miss times.
+		 */
+		protected long			misses;
+		/**
+		 * The release times.
+		 */
+		protected long			releases;
+		/**
+		 * The discard times.
+		 */
+		protected long			discards;
+
+		/**
+		 * Construct an instance of <tt>Slot</tt>.
+		 * 
+		 * @param capacity
+		 *            the maximum amount of pooled components
+		 */
+		protected Slot(int capacity)
+		{
+			this.capacity = capacity;
+		}
+	}
+}
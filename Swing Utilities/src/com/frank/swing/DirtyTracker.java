@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * DirtyTracker.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The dirty tracker of the {@link Recreatable} components.
+ * <p>
+ * The <tt>DirtyTracker</tt> records which components are changed since the
+ * last save. The components, or their listeners, call
+ * {@link #markDirty(Recreatable)} when they change, which is cheap and can be
+ * called in any thread. {@link #flush(SnapshotStore)} extracts only the dirty
+ * components and appends them with the removed ones as a delta to a
+ * {@link SnapshotStore}, so saving an idle workspace costs nothing but a
+ * check of two empty sets.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class DirtyTracker
+{
+	/**
+	 * The components by their keys.
+	 */
+	private final Map<String, Recreatable>	components	= new ConcurrentHashMap();
+	/**
+	 * The keys by the components.
+	 */
+	private final Map<Recreatable, String>	keys		= Collections
+																.synchronizedMap(new IdentityHashMap());
+	/**
+	 * The keys of the dirty components.
+	 */
+	private final Set<String>				dirty		= Collections
+																.newSetFromMap(new ConcurrentHashMap());
+	/**
+	 * The keys of the components removed since the last flush.
+	 */
+	private final Set<String>				removed		= Collections
+																.newSetFromMap(new ConcurrentHashMap());
+
+	/**
+	 * Add a component to track, which is dirty until the next flush.
+	 * 
+	 * @param key
+	 *            the key of the component
+	 * @param component
+	 *            the component
+	 */
+	public void add(String key, Recreatable component)
+	{
+		Recreatable old = components.put(key, component);
+		if (old != null)
+			keys.remove(old);
+		keys.put(component, key);
+		removed.remove(key);
+		dirty.add(key);
+	}
+
+	/**
+	 * Remove the component of the key, whose removal is saved in the next
+	 * flush.
+	 * 
+	 * @param key
+	 *            the key of the component
+	 * @return the removed component, or <code>null</code>
+	 */
+	public Recreatable remove(String key)
+	{
+		Recreatable component = components.remove(key);
+		if (component != null)
+		{
+			keys.remove(component);
+			dirty.remove(key);
+			removed.add(key);
+		}
+		return component;
+	}
+
+	/**
+	 * Mark the component of the key dirty.
+	 * 
+	 * @param key
+	 *            the key of the component
+	 */
+	public void markDirty(String key)
+	{
+		if (components.containsKey(key))
+			dirty.add(key);
+	}
+
+	/**
+	 * Mark the component dirty.
+	 * 
+	 * @param component
+	 *            the component
+	 */
+	public void markDirty(Recreatable component)
+	{
+		String key = keys.get(component);
+		if (key != null)
+			dirty.add(key);
+	}
+
+	/**
+	 * Mark all the components dirty, so that the next flush saves them all.
+	 */
+	public void markAllDirty()
+	{
+		dirty.addAll(components.keySet());
+	}
+
+	/**
+	 * Returns <code>true</code> if there are changes not flushed.
+	 * 
+	 * @return <code>true</code> if dirty
+	 */
+	public boolean isDirty()
+	{
+		return !dirty.isEmpty() || !removed.isEmpty();
+	}
+
+	/**
+	 * Returns the amount of the dirty components.
+	 * 
+	 * @return the amount of the dirty components
+	 */
+	public int getDirtyCount()
+	{
+		return dirty.size();
+	}
+
+	/**
+	 * Returns the component of the key.
+	 * 
+	 * @param key
+	 *            the key of the component
+	 * @return the component, or <code>null</code>
+	 */
+	public Recreatable get(String key)
+	{
+		return components.get(key);
+	}
+
+	/**
+	 * Returns the tracked components by their keys.
+	 * 
+	 * @return the components
+	 */
+	public Map<String, Recreatable> getComponents()
+	{
+		return Collections.unmodifiableMap(components);
+	}
+
+	/**
+	 * Extract the states of the dirty components, and mark them clean.
+	 * 
+	 * @return the states by the keys of the components
+	 */
+	public Map<String, Object> extractDirty()
+	{
+		Map<String, Object> states = new LinkedHashMap();
+		for (String key : dirty)
+		{
+			dirty.remove(key);
+			Recreatable component = components.get(key);
+			if (component != null)
+				states.put(key, component.extract());
+		}
+		return states;
+	}
+
+	/**
+	 * Append the states of the dirty components and the removals to the store,
+	 * and mark them clean. Nothing is extracted nor written if nothing
+	 * changed. This method should be called in the thread where the components
+	 * can be extracted, typically the event dispatch thread.
+	 * 
+	 * @param store
+	 *            the snapshot store
+	 * @return the amount of the components saved and removed
+	 * @throws IOException
+	 *             if the delta cannot be written, the changes are kept dirty
+	 */
+	public int flush(SnapshotStore store) throws IOException
+	{
+		if (!isDirty())
+			return 0;
+		List<String> gone = new ArrayList(removed);
+		removed.removeAll(gone);
+		Map<String, Object> states = extractDirty();
+		try
+		{
+			store.append(states, gone);
+		}
+		catch (IOException e)
+		{
+			for (String key : states.keySet())
+				markDirty(key);
+			for (String key : gone)
+				if (!components.containsKey(key))
+					removed.add(key);
+			throw e;
+		}
+		return states.size() + gone.size();
+	}
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * FontCache.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The bounded cache of the fonts and their metrics.
+ * <p>
+ * The <tt>FontCache</tt> keeps the fonts derived by the family, the style and
+ * the point size in a LRU map, so that a component which changes its font on
+ * every event, such as a font chooser whose size list is being dragged
+ * through, reuses the same <tt>Font</tt> instance and its native resources
+ * instead of allocating a new one each time. The metrics of a cached font are
+ * created the first time they are asked for and kept with the font.
+ * </p>
+ * <p>
+ * The metrics are measured in a default rendering context, without the
+ * rendering hints of any component. The cache is thread safe, and the
+ * {@link #getDefault() default cache} is shared by the whole library.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class FontCache
+{
+	/**
+	 * The default cache.
+	 */
+	private static FontCache					defaultCache;
+	/**
+	 * The cached fonts by the keys.
+	 */
+	private final LinkedHashMap<Key, Cached>	fonts;
+	/**
+	 * The graphics to create the font metrics.
+	 */
+	private final Graphics2D					graphics;
+	/**
+	 * The maximum amount of the fonts cached.
+	 */
+	private int									capacity;
+	/**
+	 * The amount of the lookups served from the cache.
+	 */
+	private long								hits;
+	/**
+	 * The amount of the lookups which created a font.
+	 */
+	private long								misses;
+
+	/**
+	 * Construct an instance of <tt>FontCache</tt>.
+	 * 
+	 * @param capacity
+	 *            the maximum amount of the fonts cached
+	 */
+	public FontCache(int capacity)
+	{
+		this.capacity = Math.max(1, capacity);
+		fonts = new LinkedHashMap<Key, Cached>(16, 0.75f, true)
+		{
+			/**
+			 * serialVersionUID.
+			 */
+			private static final long	serialVersionUID	= -3176202484312615394L;
+
+			/**
+			 * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+			 */
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest)
+			{
+				return size() > FontCache.this.capacity;
+			}
+		};
+		graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)
+				.createGraphics();
+	}
+
+	/**
+	 * Returns the default cache shared by the library.
+	 * 
+	 * @return the default cache
+	 */
+	public static synchronized FontCache getDefault()
+	{
+		if (defaultCache == null)
+			defaultCache = new FontCache(128);
+		return defaultCache;
+	}
+
+	/**
+	 * Returns the font of the specified name, style and point size, creating
+	 * it if it is not cached.
+	 * 
+	 * @param name
+	 *            the font name or the family
+	 * @param style
+	 *            the font style
+	 * @param size
+	 *            the point size
+	 * @return the font
+	 */
+	public synchronized Font getFont(String name, int style, int size)
+	{
+		return lookup(name, style, size).font;
+	}
+
+	/**
+	 * Returns the font derived from the specified font with another style
+	 * and point size, creating it if it is not cached.
+	 * 
+	 * @param font
+	 *            the font to derive from
+	 * @param style
+	 *            the font style
+	 * @param size
+	 *            the point size
+	 * @return the derived font
+	 */
+	public Font deriveFont(Font font, int style, int size)
+	{
+		return getFont(font.getName(), style, size);
+	}
+
+	/**
+	 * Returns the metrics of the specified font, which are cached with the
+	 * font if it is equal to a cached font. The metrics of other fonts, such
+	 * as a transformed font or a font of a fractional size, are measured
+	 * without inserting anything into the cache.
+	 * 
+	 * @param font
+	 *            the font
+	 * @return the font metrics
+	 */
+	public synchronized FontMetrics getFontMetrics(Font font)
+	{
+		Cached c = fonts.get(new Key(font.getName(), font.getStyle(), font
+				.getSize()));
+		if (c == null || c.font != font && !c.font.equals(font))
+			return graphics.getFontMetrics(font);
+		hits++;
+		if (c.metrics == null)
+			c.metrics = graphics.getFontMetrics(c.font);
+		return c.metrics;
+	}
+
+	/**
+	 * Returns the metrics of the font of the specified name, style and point
+	 * size.
+	 * 
+	 * @param name
+	 *            the font name or the family
+	 * @param style
+	 *            the font style
+	 * @param size
+	 *            the point size
+	 * @return the font metrics
+	 */
+	public synchronized FontMetrics getFontMetrics(String name, int style,
+			int size)
+	{
+		Cached c = lookup(name, style, size);
+		if (c.metrics == null)
+			c.metrics = graphics.getFontMetrics(c.font);
+		return c.metrics;
+	}
+
+	/**
+	 * Returns the cached entry of the font, creating it if absent.
+	 * 
+	 * @param name
+	 *            the font name or the family
+	 * @param style
+	 *            the font style
+	 * @param size
+	 *            the point size
+	 * @return the cached entry
+	 */
+	private Cached lookup(String name, int style, int size)
+	{
+		Key key = new Key(name, style, size);
+		Cached c = fonts.get(key);
+		if (c != null)
+		{
+			hits++;
+			return c;
+		}
+		misses++;
+		c = new Cached(new Font(name, style, size));
+		fonts.put(key, c);
+		return c;
+	}
+
+	/**
+	 * Set the maximum amount of the fonts cached. The least recently used
+	 * fonts are evicted as new fonts are cached.
+	 * 
+	 * @param capacity
+	 *            the cache capacity
+	 */
+	public synchronized void setCapacity(int capacity)
+	{
+		this.capacity = Math.max(1, capacity);
+	}
+
+	/**
+	 * Returns the maximum amount of the fonts cached.
+	 * 
+	 * @return the cache capacity
+	 */
+	public synchronized int getCapacity()
+	{
+		return capacity;
+	}
+
+	/**
+	 * Returns the amount of the fonts cached.
+	 * 
+	 * @return the amount of the fonts
+	 */
+	public synchronized int size()
+	{
+		return fonts.size();
+	}
+
+	/**
+	 * Returns the amount of the lookups served from the cache.
+	 * 
+	 * @return the amount of the hits
+	 */
+	public synchronized long getHitCount()
+	{
+		return hits;
+	}
+
+	/**
+	 * Returns the amount of the lookups which created a font.
+	 * 
+	 * @return the amount of the misses
+	 */
+	public synchronized long getMissCount()
+	{
+		return misses;
+	}
+
+	/**
+	 * Remove all the fonts cached.
+	 */
+	public synchronized void clear()
+	{
+		fonts.clear();
+	}
+
+	/**
+	 * The key of a cached font.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static class Key
+	{
+		/**
+		 * The font name.
+		 */
+		final String	name;
+		/**
+		 * The font style.
+		 */
+		final int		style;
+		/**
+		 * The point size.
+		 */
+		final int		size;
+
+		/**
+		 * Construct an instance of <tt>Key</tt>.
+		 * 
+		 * @param name
+		 *            the font name
+		 * @param style
+		 *            the font style
+		 * @param size
+		 *            the point size
+		 */
+		Key(String name, int style, int size)
+		{
+			this.name = name;
+			this.style = style;
+			this.size = size;
+		}
+
+		/**
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode()
+		{
+			return (name.hashCode() * 31 + style) * 31 + size;
+		}
+
+		/**
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Key))
+				return false;
+			Key k = (Key) obj;
+			return style == k.style && size == k.size && name.equals(k.name);
+		}
+	}
+
+	/**
+	 * The cached font and its metrics.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static class Cached
+	{
+		/**
+		 * The font.
+		 */
+		final Font	font;
+		/**
+		 * The font metrics, or <code>null</code> if not measured yet.
+		 */
+		FontMetrics	metrics;
+
+		/**
+		 * Construct an instance of <tt>Cached</tt>.
+		 * 
+		 * @param font
+		 *            the font
+		 */
+		Cached(Font font)
+		{
+			this.font = font;
+		}
+	}
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * FontCatalog.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
+
+import com.frank.swing.FontCatalogCache.FontInfo;
+
+/**
+ * The process-wide catalog of the font families.
+ * <p>
+ * The <tt>FontCatalog</tt> enumerates the font families on a daemon thread,
+ * so that the enumeration, which may take seconds on the machines with
+ * thousands of fonts, never blocks the event dispatch thread. The
+ * {@link #getDefault() default catalog} starts loading the first time it is
+ * used, and should be touched at the startup of the application, so that it is
+ * loaded before the first {@link JFontChooser} opens. The default catalog is
+ * also kept in a {@link FontCatalogCache}, so that if the fonts are not
+ * changed, the first loading reads the cache instead of enumerating the
+ * fonts.
+ * </p>
+ * <p>
+ * The catalog is also the list model of the families shared by all the font
+ * choosers. The changes are applied in the event dispatch thread, and fired
+ * as the intervals added and removed, so the lists fill in when the catalog
+ * is loaded, and {@link #refresh()} fires only the families really changed.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class FontCatalog extends AbstractListModel<String>
+{
+	/**
+	 * serialVersionUID.
+	 */
+	private static final long				serialVersionUID	= 3618470925107523071L;
+	/**
+	 * The default catalog.
+	 */
+	private static FontCatalog				defaultCatalog;
+	/**
+	 * The families shown in the list model, confined to the event dispatch
+	 * thread.
+	 */
+	private final List<String>				families			= new ArrayList();
+	/**
+	 * The latest families loaded.
+	 */
+	private volatile String[]				loaded				= new String[0];
+	/**
+	 * The latch released when the catalog is loaded first.
+	 */
+	private final CountDownLatch			latch				= new CountDownLatch(1);
+	/**
+	 * The persistent cache, or <code>null</code>.
+	 */
+	protected final FontCatalogCache		cache;
+	/**
+	 * The font information by the families, empty until measured or read
+	 * from the cache.
+	 */
+	private volatile Map<String, FontInfo>	infos				= Collections.emptyMap();
+	/**
+	 * The flag whether the catalog has been loaded once.
+	 */
+	private boolean							first				= true;
+	/**
+	 * The flag whether the catalog is loading.
+	 */
+	private boolean							loading;
+	/**
+	 * The flag whether another loading is requested while loading.
+	 */
+	private boolean							again;
+
+	/**
+	 * Returns the default catalog, which starts loading when it is created.
+	 * 
+	 * @return the default catalog
+	 */
+	public static synchronized FontCatalog getDefault()
+	{
+		if (defaultCatalog == null)
+		{
+			defaultCatalog = new FontCatalog(new FontCatalogCache(
+					FontCatalogCache.getDefaultFile()));
+			defaultCatalog.refresh();
+		}
+		return defaultCatalog;
+	}
+
+	/**
+	 * Construct an instance of <tt>FontCatalog</tt> without persistent cache.
+	 */
+	public FontCatalog()
+	{
+		this(null);
+	}
+
+	/**
+	 * Construct an instance of <tt>FontCatalog</tt>.
+	 * 
+	 * @param cache
+	 *            the persistent cache, or <code>null</code>
+	 */
+	public FontCatalog(FontCatalogCache cache)
+	{
+		this.cache = cache;
+	}
+
+	/**
+	 * Load the families again on a daemon thread, and fire the families
+	 * changed in the event dispatch thread.
+	 */
+	public void refresh()
+	{
+		synchronized (this)
+		{
+			if (loading)
+			{
+				again = true;
+				return;
+			}
+			loading = true;
+		}
+		Thread t = new Thread(new Runnable()
+		{
+			public void run()
+			{
+				boolean more = true;
+				while (more)
+				{
+					try
+					{
+						load();
+					}
+					finally
+					{
+						synchronized (FontCatalog.this)
+						{
+							more = again;
+							again = false;
+							loading = more;
+						}
+					}
+				}
+			}
+		}, "FontCatalog"); //$NON-NLS-1$
+		t.setDaemon(true);
+		t.start();
+	}
+
+	/**
+	 * Load the families. The first loading reads the cache if it is up to
+	 * date, otherwise the families are enumerated and published, then
+	 * measured and saved into the cache. This method is called on the loading
+	 * thread.
+	 */
+	protected void load()
+	{
+		boolean cached;
+		synchronized (this)
+		{
+			cached = first;
+			first = false;
+		}
+		if (cache == null)
+		{
+			publish(enumerate());
+			return;
+		}
+		long stamp = cache.stamp();
+		Map<String, FontInfo> read = cached ? cache.load(stamp) : null;
+		if (read != null)
+		{
+			infos = read;
+			publish(read.keySet().toArray(new String[read.size()]));
+			return;
+		}
+		String[] names = enumerate();
+		publish(names);
+		infos = FontCatalogCache.measure(names);
+		try
+		{
+			cache.save(stamp, infos.values());
+		}
+		catch (IOException e)
+		{
+			// enumerate again at the next startup
+		}
+	}
+
+	/**
+	 * Enumerate the font families. This method is called on the loading
+	 * thread.
+	 * 
+	 * @return the font families
+	 */
+	protected String[] enumerate()
+	{
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getAvailableFontFamilyNames(Locale.getDefault());
+	}
+
+	/**
+	 * Publish the families loaded to the list model.
+	 * 
+	 * @param names
+	 *            the families loaded
+	 */
+	protected void publish(final String[] names)
+	{
+		loaded = names;
+		SwingUtilities.invokeLater(new Runnable()
+		{
+			public void run()
+			{
+				apply(names);
+				latch.countDown();
+			}
+		});
+	}
+
+	/**
+	 * Apply the families to the list model, and fire the changes. This method
+	 * is called in the event dispatch thread.
+	 * 
+	 * @param names
+	 *            the families in order
+	 */
+	private void apply(String[] names)
+	{
+		if (families.isEmpty())
+		{
+			if (names.length > 0)
+			{
+				families.addAll(Arrays.asList(names));
+				fireIntervalAdded(this, 0, names.length - 1);
+			}
+			return;
+		}
+		Set<String> keep = new HashSet(Arrays.asList(names));
+		for (int i = families.size() - 1; i >= 0; i--)
+			if (!keep.contains(families.get(i)))
+			{
+				families.remove(i);
+				fireIntervalRemoved(this, i, i);
+			}
+		// the rest is a subsequence of the names
+		for (int i = 0; i < names.length; i++)
+			if (i >= families.size() || !families.get(i).equals(names[i]))
+			{
+				families.add(i, names[i]);
+				fireIntervalAdded(this, i, i);
+			}
+	}
+
+	/**
+	 * Returns <code>true</code> if the catalog is loaded and shown in the list
+	 * model.
+	 * 
+	 * @return <code>true</code> if loaded
+	 */
+	public boolean isLoaded()
+	{
+		return latch.getCount() == 0;
+	}
+
+	/**
+	 * Wait until the catalog is loaded and shown in the list model. This
+	 * method should not be called in the event dispatch thread.
+	 * 
+	 * @param millis
+	 *            the maximum time to wait in milliseconds
+	 * @return <code>true</code> if loaded
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public boolean awaitLoaded(long millis) throws InterruptedException
+	{
+		return latch.await(millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the latest families loaded, which can be called in any thread.
+	 * 
+	 * @return the font families
+	 */
+	public String[] getFamilies()
+	{
+		return loaded.clone();
+	}
+
+	/**
+	 * Returns the styles and metrics of the family.
+	 * 
+	 * @param family
+	 *            the font family
+	 * @return the font information, or <code>null</code> if not measured yet
+	 */
+	public FontInfo getInfo(String family)
+	{
+		return infos.get(family);
+	}
+
+	/**
+	 * Returns the index of the family in the list model.
+	 * 
+	 * @param family
+	 *            the font family
+	 * @return the index, or <code>-1</code> if not found
+	 */
+	public int indexOf(String family)
+	{
+		return families.indexOf(family);
+	}
+
+	/**
+	 * @see javax.swing.ListModel#getSize()
+	 */
+	@Override
+	public int getSize()
+	{
+		return families.size();
+	}
+
+	/**
+	 * @see javax.swing.ListModel#getElementAt(int)
+	 */
+	@Override
+	public String getElementAt(int index)
+	{
+		return families.get(index);
+	}
+}
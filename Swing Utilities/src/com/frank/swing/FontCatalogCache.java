@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * FontCatalogCache.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Font;
+import java.awt.GraphicsEnvironment;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The persistent cache of the font catalog.
+ * <p>
+ * The <tt>FontCatalogCache</tt> keeps the font families, their styles and
+ * metrics in a file, which is read and decoded when the catalog loads, so that
+ * a cold start costs no font enumeration at all. The cache is stamped by the
+ * modification time of the font directories of the platform and their
+ * sub-directories, the Java version and the default locale, and is ignored when
+ * the stamp differs, that is, when the fonts may be installed or removed.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class FontCatalogCache
+{
+	/**
+	 * The magic number of the cache file.
+	 */
+	public static final int		MAGIC		= 0x46434154;
+	/**
+	 * The format version of the cache file.
+	 */
+	public static final int		FORMAT		= 1;
+	/**
+	 * The levels of the font sub-directories to stamp.
+	 */
+	private static final int	MAX_DEPTH	= 8;
+	/**
+	 * The cache file.
+	 */
+	protected final File		file;
+
+	/**
+	 * Construct an instance of <tt>FontCatalogCache</tt>.
+	 * 
+	 * @param file
+	 *            the cache file
+	 */
+	public FontCatalogCache(File file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Returns the default cache file, <tt>~/.swing-utils/fontcatalog.bin</tt>.
+	 * 
+	 * @return the default cache file
+	 */
+	public static File getDefaultFile()
+	{
+		return new File(new File(System.getProperty("user.home"), //$NON-NLS-1$
+				".swing-utils"), "fontcatalog.bin"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Returns the font directories of the platform.
+	 * 
+	 * @return the font directories
+	 */
+	protected List<File> directories()
+	{
+		List<File> dirs = new ArrayList();
+		String home = System.getProperty("user.home"); //$NON-NLS-1$
+		dirs.add(new File(System.getProperty("java.home"), "lib/fonts")); //$NON-NLS-1$ //$NON-NLS-2$
+		String os = System.getProperty("os.name", "").toLowerCase(); //$NON-NLS-1$ //$NON-NLS-2$
+		if (os.startsWith("windows")) //$NON-NLS-1$
+		{
+			String windir = System.getenv("WINDIR"); //$NON-NLS-1$
+			if (windir != null)
+				dirs.add(new File(windir, "Fonts")); //$NON-NLS-1$
+			String local = System.getenv("LOCALAPPDATA"); //$NON-NLS-1$
+			if (local != null)
+				dirs.add(new File(local, "Microsoft/Windows/Fonts")); //$NON-NLS-1$
+		}
+		else if (os.startsWith("mac")) //$NON-NLS-1$
+		{
+			dirs.add(new File("/System/Library/Fonts")); //$NON-NLS-1$
+			dirs.add(new File("/Library/Fonts")); //$NON-NLS-1$
+			dirs.add(new File(home, "Library/Fonts")); //$NON-NLS-1$
+		}
+		else
+		{
+			dirs.add(new File("/usr/share/fonts")); //$NON-NLS-1$
+			dirs.add(new File("/usr/local/share/fonts")); //$NON-NLS-1$
+			dirs.add(new File(home, ".fonts")); //$NON-NLS-1$
+			dirs.add(new File(home, ".local/share/fonts")); //$NON-NLS-1$
+		}
+		return dirs;
+	}
+
+	/**
+	 * Returns the current stamp of the fonts, computed from the modification
+	 * time of the font directories and all their sub-directories, the Java
+	 * version and the default locale. A directory is modified whenever a font
+	 * file is added to or removed from it, however deep it is.
+	 * 
+	 * @return the stamp
+	 */
+	public long stamp()
+	{
+		long h = 1125899906842597L;
+		h = 31 * h + System.getProperty("java.version", "").hashCode(); //$NON-NLS-1$ //$NON-NLS-2$
+		h = 31 * h + Locale.getDefault().hashCode();
+		for (File dir : directories())
+		{
+			h = 31 * h + dir.getPath().hashCode();
+			h = stamp(h, dir, MAX_DEPTH);
+		}
+		return h;
+	}
+
+	/**
+	 * Stamp the modification time of the directory and its sub-directories.
+	 * 
+	 * @param h
+	 *            the stamp so far
+	 * @param dir
+	 *            the directory
+	 * @param depth
+	 *            the levels of the sub-directories to walk, which guards
+	 *            against the symbolic link cycles
+	 * @return the stamp
+	 */
+	private static long stamp(long h, File dir, int depth)
+	{
+		h = 31 * h + dir.lastModified();
+		File[] subs = depth > 0 ? dir.listFiles() : null;
+		if (subs == null)
+			return h;
+		Arrays.sort(subs);
+		for (File sub : subs)
+			if (sub.isDirectory())
+			{
+				h = 31 * h + sub.getName().hashCode();
+				h = stamp(h, sub, depth - 1);
+			}
+		return h;
+	}
+
+	/**
+	 * Load the cached fonts if the cache is up to date.
+	 * 
+	 * @param stamp
+	 *            the current stamp
+	 * @return the font information by the families in order, or
+	 *         <code>null</code> if the cache is missing, stale or malformed
+	 */
+	public Map<String, FontInfo> load(long stamp)
+	{
+		try
+		{
+			SnapshotDecoder in = read(file, MAGIC, FORMAT, stamp);
+			if (in == null)
+				return null;
+			int n = in.readUnsigned();
+			Map<String, FontInfo> infos = new LinkedHashMap(n * 4 / 3 + 1);
+			for (int i = 0; i < n; i++)
+			{
+				FontInfo info = new FontInfo(in.readString(), in.readByte(),
+						in.readFloat(), in.readFloat(), in.readFloat());
+				infos.put(info.family, info);
+			}
+			return infos;
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Save the fonts to the cache file.
+	 * 
+	 * @param stamp
+	 *            the stamp of the fonts
+	 * @param infos
+	 *            the font information in order
+	 * @throws IOException
+	 *             if the cache file cannot be written
+	 */
+	public void save(long stamp, Collection<FontInfo> infos) throws IOException
+	{
+		SnapshotEncoder out = create(MAGIC, FORMAT, stamp,
+				infos.size() * 32 + 32);
+		out.writeUnsigned(infos.size());
+		for (FontInfo info : infos)
+		{
+			out.writeString(info.family);
+			out.writeByte(info.styles);
+			out.writeFloat(info.ascent);
+			out.writeFloat(info.descent);
+			out.writeFloat(info.leading);
+		}
+		write(file, out);
+	}
+
+	/**
+	 * Read a cache file and check its header. The file is read into the heap
+	 * rather than mapped, since a mapped file cannot be replaced on Windows.
+	 * 
+	 * @param file
+	 *            the cache file
+	 * @param magic
+	 *            the magic number of the cache file
+	 * @param format
+	 *            the format version of the cache file
+	 * @param stamp
+	 *            the current stamp
+	 * @return the decoder after the header, or <code>null</code> if the file
+	 *         is missing or of another kind, format or stamp
+	 * @throws IOException
+	 *             if the file cannot be read or is malformed
+	 */
+	static SnapshotDecoder read(File file, int magic, int format, long stamp)
+			throws IOException
+	{
+		if (file == null || !file.isFile())
+			return null;
+		SnapshotDecoder in = new SnapshotDecoder(Files.readAllBytes(file
+				.toPath()));
+		if (in.readInt() != magic || in.readUnsigned() != format
+				|| in.readLong() != stamp)
+			return null;
+		return in;
+	}
+
+	/**
+	 * Create an encoder of a cache file with its header written.
+	 * 
+	 * @param magic
+	 *            the magic number of the cache file
+	 * @param format
+	 *            the format version of the cache file
+	 * @param stamp
+	 *            the stamp of the fonts
+	 * @param capacity
+	 *            the initial capacity in bytes
+	 * @return the encoder
+	 */
+	static SnapshotEncoder create(int magic, int format, long stamp,
+			int capacity)
+	{
+		SnapshotEncoder out = new SnapshotEncoder(capacity);
+		out.writeInt(magic);
+		out.writeUnsigned(format);
+		out.writeLong(stamp);
+		return out;
+	}
+
+	/**
+	 * Write a cache file atomically, through a temporary file moved over the
+	 * old one, so that a reader never sees a partial file.
+	 * 
+	 * @param file
+	 *            the cache file
+	 * @param out
+	 *            the encoded content
+	 * @throws IOException
+	 *             if the cache file cannot be written
+	 */
+	static void write(File file, SnapshotEncoder out) throws IOException
+	{
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.isDirectory() && !dir.mkdirs())
+			throw new IOException(String.format(
+					Messages.getString("FontCatalogCache.0"), dir)); //$NON-NLS-1$
+		File tmp = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+		try (FileOutputStream os = new FileOutputStream(tmp))
+		{
+			out.writeTo(os);
+		}
+		Files.move(tmp.toPath(), file.toPath(),
+				StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Measure the styles and metrics of the font families. This method
+	 * enumerates all the fonts, and should not be called in the event dispatch
+	 * thread.
+	 * 
+	 * @param families
+	 *            the font families
+	 * @return the font information by the families in order
+	 */
+	public static Map<String, FontInfo> measure(String[] families)
+	{
+		Map<String, Integer> styles = new HashMap();
+		Locale locale = Locale.getDefault();
+		for (Font f : GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getAllFonts())
+		{
+			String family = f.getFamily(locale);
+			Integer s = styles.get(family);
+			styles.put(family, (s == null ? 0 : s) | 1 << styleOf(f));
+		}
+		FontRenderContext frc = new FontRenderContext(null, true, true);
+		Map<String, FontInfo> infos = new LinkedHashMap(
+				families.length * 4 / 3 + 1);
+		for (String family : families)
+		{
+			LineMetrics lm = new Font(family, Font.PLAIN, 100).getLineMetrics(
+					"Ag", frc); //$NON-NLS-1$
+			Integer s = styles.get(family);
+			infos.put(family, new FontInfo(family, s == null ? 1 : s, lm
+					.getAscent() / 100, lm.getDescent() / 100,
+					lm.getLeading() / 100));
+		}
+		return infos;
+	}
+
+	/**
+	 * Returns the style of a font face by its name.
+	 * 
+	 * @param f
+	 *            the font face
+	 * @return the style
+	 */
+	private static int styleOf(Font f)
+	{
+		String name = f.getFontName(Locale.ENGLISH).toLowerCase(Locale.ENGLISH);
+		int style = Font.PLAIN;
+		if (name.contains("bold") || name.contains("heavy") //$NON-NLS-1$ //$NON-NLS-2$
+				|| name.contains("black")) //$NON-NLS-1$
+			style |= Font.BOLD;
+		if (name.contains("italic") || name.contains("oblique")) //$NON-NLS-1$ //$NON-NLS-2$
+			style |= Font.ITALIC;
+		return style;
+	}
+
+	/**
+	 * The styles and metrics of a font family.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	public static class FontInfo
+	{
+		/**
+		 * The font family.
+		 */
+		protected final String	family;
+		/**
+		 * The styles available, bit <code>1 &lt;&lt; style</code> for each
+		 * style.
+		 */
+		protected final int		styles;
+		/**
+		 * The ascent of one point size.
+		 */
+		protected final float	ascent;
+		/**
+		 * The descent of one point size.
+		 */
+		protected final float	descent;
+		/**
+		 * The leading of one point size.
+		 */
+		protected final float	leading;
+
+		/**
+		 * Construct an instance of <tt>FontInfo</tt>.
+		 * 
+		 * @param family
+		 *            the font family
+		 * @param styles
+		 *            the styles available
+		 * @param ascent
+		 *            the ascent of one point size
+		 * @param descent
+		 *            the descent of one point size
+		 * @param leading
+		 *            the leading of one point size
+		 */
+		public FontInfo(String family, int styles, float ascent,
+				float descent, float leading)
+		{
+			this.family = family;
+			this.styles = styles & 0xF;
+			this.ascent = ascent;
+			this.descent = descent;
+			this.leading = leading;
+		}
+
+		/**
+		 * Returns the font family.
+		 * 
+		 * @return the font family
+		 */
+		public String getFamily()
+		{
+			return family;
+		}
+
+		/**
+		 * Returns <code>true</code> if the family has a face of the style.
+		 * 
+		 * @param style
+		 *            the style, such as {@link Font#BOLD}
+		 * @return <code>true</code> if the style is available
+		 */
+		public boolean hasStyle(int style)
+		{
+			return (styles & 1 << (style & 3)) != 0;
+		}
+
+		/**
+		 * Returns the ascent of the size.
+		 * 
+		 * @param size
+		 *            the point size
+		 * @return the ascent
+		 */
+		public float getAscent(float size)
+		{
+			return ascent * size;
+		}
+
+		/**
+		 * Returns the descent of the size.
+		 * 
+		 * @param size
+		 *            the point size
+		 * @return the descent
+		 */
+		public float getDescent(float size)
+		{
+			return descent * size;
+		}
+
+		/**
+		 * Returns the line height of the size.
+		 * 
+		 * @param size
+		 *            the point size
+		 * @return the line height
+		 */
+		public float getHeight(float size)
+		{
+			return (ascent + descent + leading) * size;
+		}
+	}
+}
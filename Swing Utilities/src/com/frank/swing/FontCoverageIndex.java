@@ -0,0 +1,543 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * FontCoverageIndex.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Font;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * The index of the Unicode characters which the font families can display.
+ * <p>
+ * The <tt>FontCoverageIndex</tt> divides the code points into pages of 256
+ * characters, and keeps a bitmap of each page for every family. A page is
+ * computed the first time a text touches it, for all the families at once on
+ * a pool of threads, so that only the scripts actually asked for are ever
+ * probed with {@link Font#canDisplay(int)}. Once the pages of a text are
+ * computed, the families which can display the text are found by testing a
+ * few bits per family, without touching any font.
+ * </p>
+ * <p>
+ * The computed pages are saved into a cache file with the stamp of the
+ * installed fonts, and read back the next time the index is used, until the
+ * fonts change.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class FontCoverageIndex
+{
+	/**
+	 * The magic number of the cache file.
+	 */
+	public static final int						MAGIC			= 0x46434F56;
+	/**
+	 * The format version of the cache file.
+	 */
+	public static final int						FORMAT			= 1;
+	/**
+	 * The amount of the families probed by a task.
+	 */
+	private static final int					CHUNK			= 16;
+	/**
+	 * The row tag of a family which can display nothing in a page.
+	 */
+	private static final int					EMPTY			= 0;
+	/**
+	 * The row tag of a family which can display the whole page.
+	 */
+	private static final int					FULL			= 1;
+	/**
+	 * The row tag of a family which can display a part of a page.
+	 */
+	private static final int					PARTIAL			= 2;
+	/**
+	 * The default index.
+	 */
+	private static FontCoverageIndex			defaultIndex;
+	/**
+	 * The catalog cache to stamp the fonts, or <code>null</code>.
+	 */
+	protected final FontCatalogCache			catalogCache;
+	/**
+	 * The cache file, or <code>null</code>.
+	 */
+	protected final File						file;
+	/**
+	 * The slots of the families in the page bitmaps.
+	 */
+	private final Map<String, Integer>			slots			= new ConcurrentHashMap();
+	/**
+	 * The families by the slots, guarded by the lock.
+	 */
+	private final List<String>					names			= new ArrayList();
+	/**
+	 * The computed pages by the page numbers.
+	 */
+	private final Map<Integer, Page>			pages			= new ConcurrentHashMap();
+	/**
+	 * The lock to compute the pages.
+	 */
+	private final Object						lock			= new Object();
+	/**
+	 * The stamp of the fonts, guarded by the lock.
+	 */
+	private long								stamp;
+	/**
+	 * The flag whether the cache file is read, guarded by the lock.
+	 */
+	private boolean								loaded;
+
+	/**
+	 * Construct an instance of <tt>FontCoverageIndex</tt> without persistent
+	 * cache.
+	 */
+	public FontCoverageIndex()
+	{
+		this(null, null);
+	}
+
+	/**
+	 * Construct an instance of <tt>FontCoverageIndex</tt>.
+	 * 
+	 * @param catalogCache
+	 *            the catalog cache to stamp the fonts
+	 * @param file
+	 *            the cache file
+	 */
+	public FontCoverageIndex(FontCatalogCache catalogCache, File file)
+	{
+		this.catalogCache = catalogCache;
+		this.file = file;
+	}
+
+	/**
+	 * Returns the default index, cached in
+	 * <tt>~/.swing-utils/fontcoverage.bin</tt>.
+	 * 
+	 * @return the default index
+	 */
+	public static synchronized FontCoverageIndex getDefault()
+	{
+		if (defaultIndex == null)
+		{
+			File catalogFile = FontCatalogCache.getDefaultFile();
+			defaultIndex = new FontCoverageIndex(new FontCatalogCache(
+					catalogFile), new File(catalogFile.getParentFile(),
+					"fontcoverage.bin")); //$NON-NLS-1$
+		}
+		return defaultIndex;
+	}
+
+	/**
+	 * Returns whether the pages of the text are computed for all the families
+	 * of the index, so that {@link #filter(String, FontIndex)} returns at
+	 * once.
+	 * 
+	 * @param text
+	 *            the text to display
+	 * @param index
+	 *            the index of the families
+	 * @return <code>true</code> if the pages are computed
+	 */
+	public boolean isPrepared(String text, FontIndex index)
+	{
+		for (int cp : codePoints(text))
+		{
+			Page page = pages.get(cp >>> 8);
+			if (page == null)
+				return false;
+			for (int i = 0; i < index.size(); i++)
+			{
+				Integer slot = slots.get(index.getFamily(i));
+				if (slot == null || slot >= page.filled)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compute the pages of the text in a background thread, and run the
+	 * handler in the event dispatch thread when they are computed. The
+	 * handler runs at once if the pages are already computed.
+	 * 
+	 * @param text
+	 *            the text to display
+	 * @param index
+	 *            the index of the families
+	 * @param done
+	 *            the handler to run when the pages are computed
+	 */
+	public void prepare(final String text, final FontIndex index,
+			final Runnable done)
+	{
+		if (isPrepared(text, index))
+		{
+			done.run();
+			return;
+		}
+		Thread t = new Thread(new Runnable()
+		{
+			public void run()
+			{
+				ensure(text, index);
+				SwingUtilities.invokeLater(done);
+			}
+		}, "FontCoverageIndex"); //$NON-NLS-1$
+		t.setDaemon(true);
+		t.start();
+	}
+
+	/**
+	 * Returns the families of the index which can display all the characters
+	 * of the text, the white spaces and the control characters excepted. The
+	 * missing pages are computed first, so this method should not be called
+	 * in the event dispatch thread unless the text is
+	 * {@link #isPrepared(String, FontIndex) prepared}. If the computing is
+	 * interrupted, no family is returned.
+	 * 
+	 * @param text
+	 *            the text to display
+	 * @param index
+	 *            the index of the families
+	 * @return the indices of the families in the index
+	 */
+	public BitSet filter(String text, FontIndex index)
+	{
+		if (!isPrepared(text, index))
+			ensure(text, index);
+		int[] cps = codePoints(text);
+		Page[] touched = new Page[cps.length];
+		for (int k = 0; k < cps.length; k++)
+			if ((touched[k] = pages.get(cps[k] >>> 8)) == null)
+				return new BitSet();
+		BitSet found = new BitSet(index.size());
+		for (int i = 0; i < index.size(); i++)
+		{
+			Integer slot = slots.get(index.getFamily(i));
+			if (slot == null)
+				continue;
+			int row = slot << 2;
+			boolean all = true;
+			for (int k = 0; k < cps.length && all; k++)
+				all = slot < touched[k].filled
+						&& (touched[k].bits[row + (cps[k] >>> 6 & 3)]
+								& 1L << cps[k]) != 0;
+			if (all)
+				found.set(i);
+		}
+		return found;
+	}
+
+	/**
+	 * Returns whether the family can display all the characters of the text,
+	 * the white spaces and the control characters excepted.
+	 * 
+	 * @param family
+	 *            the font family
+	 * @param text
+	 *            the text to display
+	 * @return <code>true</code> if the family can display the text
+	 */
+	public boolean canDisplay(String family, String text)
+	{
+		return filter(text, new FontIndex(new String[] { family })).get(0);
+	}
+
+	/**
+	 * Returns the distinct code points of the text, the white spaces and the
+	 * control characters excepted.
+	 * 
+	 * @param text
+	 *            the text
+	 * @return the code points in ascending order
+	 */
+	private static int[] codePoints(String text)
+	{
+		int[] cps = new int[text.length()];
+		int n = 0;
+		for (int i = 0; i < text.length();)
+		{
+			int cp = text.codePointAt(i);
+			i += Character.charCount(cp);
+			if (!Character.isWhitespace(cp) && !Character.isISOControl(cp))
+				cps[n++] = cp;
+		}
+		Arrays.sort(cps, 0, n);
+		int m = 0;
+		for (int i = 0; i < n; i++)
+			if (m == 0 || cps[m - 1] != cps[i])
+				cps[m++] = cps[i];
+		return Arrays.copyOf(cps, m);
+	}
+
+	/**
+	 * Compute the pages of the text missing for the families of the index,
+	 * and save them into the cache file.
+	 * 
+	 * @param text
+	 *            the text to display
+	 * @param index
+	 *            the index of the families
+	 */
+	private void ensure(String text, FontIndex index)
+	{
+		synchronized (lock)
+		{
+			if (!loaded)
+			{
+				loaded = true;
+				load();
+			}
+			for (int i = 0; i < index.size(); i++)
+			{
+				String family = index.getFamily(i);
+				if (!slots.containsKey(family))
+				{
+					slots.put(family, names.size());
+					names.add(family);
+				}
+			}
+			final int count = names.size();
+			List<Integer> missing = new ArrayList();
+			for (int cp : codePoints(text))
+			{
+				Integer p = cp >>> 8;
+				Page page = pages.get(p);
+				if ((page == null || page.filled < count)
+						&& !missing.contains(p))
+					missing.add(p);
+			}
+			if (missing.isEmpty())
+				return;
+			final int[] numbers = new int[missing.size()];
+			final int[] from = new int[numbers.length];
+			final long[][] bits = new long[numbers.length][count << 2];
+			for (int k = 0; k < numbers.length; k++)
+			{
+				numbers[k] = missing.get(k);
+				Page page = pages.get(numbers[k]);
+				if (page != null)
+				{
+					from[k] = page.filled;
+					System.arraycopy(page.bits, 0, bits[k], 0,
+							page.filled << 2);
+				}
+			}
+			final String[] families = names.toArray(new String[count]);
+			List<Callable<Void>> tasks = new ArrayList();
+			for (int c = 0; c < count; c += CHUNK)
+			{
+				final int start = c, end = Math.min(c + CHUNK, count);
+				tasks.add(new Callable<Void>()
+				{
+					public Void call()
+					{
+						probe(families, start, end, numbers, from, bits);
+						return null;
+					}
+				});
+			}
+			try
+			{
+				for (Future<Void> f : SwingUtils.getSharedPool().invokeAll(
+						tasks))
+					f.get();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (ExecutionException e)
+			{
+				throw new IllegalStateException(e.getCause());
+			}
+			for (int k = 0; k < numbers.length; k++)
+				pages.put(numbers[k], new Page(bits[k], count));
+			if (file != null)
+				try
+				{
+					save();
+				}
+				catch (IOException e)
+				{
+					// compute again at the next startup
+				}
+		}
+	}
+
+	/**
+	 * Probe the fonts of the families in the range for the pages. This method
+	 * is called on the pool.
+	 * 
+	 * @param families
+	 *            the families by the slots
+	 * @param start
+	 *            the first slot, inclusive
+	 * @param end
+	 *            the last slot, exclusive
+	 * @param numbers
+	 *            the page numbers
+	 * @param from
+	 *            the first slot to probe of each page
+	 * @param bits
+	 *            the bitmaps of each page to fill in
+	 */
+	private static void probe(String[] families, int start, int end,
+			int[] numbers, int[] from, long[][] bits)
+	{
+		for (int s = start; s < end; s++)
+		{
+			Font font = null;
+			for (int k = 0; k < numbers.length; k++)
+			{
+				if (s < from[k])
+					continue;
+				if (font == null)
+					font = new Font(families[s], Font.PLAIN, 1);
+				int base = numbers[k] << 8, row = s << 2;
+				for (int c = 0; c < 256; c++)
+					if (font.canDisplay(base + c))
+						bits[k][row + (c >>> 6)] |= 1L << c;
+			}
+		}
+	}
+
+	/**
+	 * Read the pages from the cache file if the fonts are not changed since
+	 * it was saved. This method is called with the lock held.
+	 */
+	private void load()
+	{
+		if (catalogCache == null)
+			return;
+		stamp = catalogCache.stamp();
+		try
+		{
+			SnapshotDecoder in = FontCatalogCache.read(file, MAGIC, FORMAT,
+					stamp);
+			if (in == null)
+				return;
+			int count = in.readUnsigned();
+			String[] families = new String[count];
+			for (int i = 0; i < count; i++)
+				families[i] = in.readString();
+			int n = in.readUnsigned();
+			Map<Integer, Page> read = new ConcurrentHashMap();
+			for (int k = 0; k < n; k++)
+			{
+				int number = in.readUnsigned();
+				int filled = in.readUnsigned();
+				long[] bits = new long[count << 2];
+				for (int row = 0; row < filled << 2; row += 4)
+				{
+					int tag = in.readByte();
+					if (tag == FULL)
+						Arrays.fill(bits, row, row + 4, -1L);
+					else if (tag == PARTIAL)
+						for (int w = 0; w < 4; w++)
+							bits[row + w] = in.readLong();
+				}
+				read.put(number, new Page(bits, filled));
+			}
+			for (String family : families)
+			{
+				slots.put(family, names.size());
+				names.add(family);
+			}
+			pages.putAll(read);
+		}
+		catch (IOException e)
+		{
+			slots.clear();
+			names.clear();
+		}
+	}
+
+	/**
+	 * Save the pages to the cache file. This method is called with the lock
+	 * held.
+	 * 
+	 * @throws IOException
+	 *             if the cache file cannot be written
+	 */
+	private void save() throws IOException
+	{
+		SnapshotEncoder out = FontCatalogCache.create(MAGIC, FORMAT, stamp,
+				names.size() * 32 + 32);
+		out.writeUnsigned(names.size());
+		for (String family : names)
+			out.writeString(family);
+		out.writeUnsigned(pages.size());
+		for (Map.Entry<Integer, Page> e : pages.entrySet())
+		{
+			Page page = e.getValue();
+			out.writeUnsigned(e.getKey());
+			out.writeUnsigned(page.filled);
+			for (int row = 0; row < page.filled << 2; row += 4)
+			{
+				long[] b = page.bits;
+				if ((b[row] | b[row + 1] | b[row + 2] | b[row + 3]) == 0)
+					out.writeByte(EMPTY);
+				else if ((b[row] & b[row + 1] & b[row + 2] & b[row + 3]) == -1L)
+					out.writeByte(FULL);
+				else
+				{
+					out.writeByte(PARTIAL);
+					for (int w = 0; w < 4; w++)
+						out.writeLong(b[row + w]);
+				}
+			}
+		}
+		FontCatalogCache.write(file, out);
+	}
+
+	/**
+	 * The bitmaps of a page, four words per family slot.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static class Page
+	{
+		/**
+		 * The bitmaps of the slots.
+		 */
+		final long[]	bits;
+		/**
+		 * The amount of the slots computed.
+		 */
+		final int		filled;
+
+		/**
+		 * Construct an instance of <tt>Page</tt>.
+		 * 
+		 * @param bits
+		 *            the bitmaps of the slots
+		 * @param filled
+		 *            the amount of the slots computed
+		 */
+		Page(long[] bits, int filled)
+		{
+			this.bits = bits;
+			this.filled = filled;
+		}
+	}
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * FontFilterModel.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.util.BitSet;
+
+import javax.swing.AbstractListModel;
+import javax.swing.ListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+/**
+ * The list model of the font families filtered by a query.
+ * <p>
+ * The <tt>FontFilterModel</tt> shows the families of a source model, such as
+ * the {@link FontCatalog}, which match the query, ranked by a
+ * {@link FontIndex}. The index is rebuilt once after a batch of changes of
+ * the source. When the query changes, the old and the new results are
+ * compared, and only the rows removed, added or changed are fired, so that
+ * typing ahead neither resets the list nor repaints the rows which are kept.
+ * All the methods should be called in the event dispatch thread.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class FontFilterModel extends AbstractListModel<String> implements
+		ListDataListener
+{
+	/**
+	 * serialVersionUID.
+	 */
+	private static final long			serialVersionUID	= -2972081405961766212L;
+	/**
+	 * The source model of the families.
+	 */
+	protected final ListModel<String>	source;
+	/**
+	 * The index of the source families.
+	 */
+	private FontIndex					index				= new FontIndex(
+																	new String[0]);
+	/**
+	 * The families shown.
+	 */
+	private String[]					view				= new String[0];
+	/**
+	 * The query.
+	 */
+	private String						query				= "";		//$NON-NLS-1$
+	/**
+	 * The indices of the families allowed, or <code>null</code> for all.
+	 */
+	private BitSet						allowed;
+	/**
+	 * The flag whether a rebuild of the index is scheduled.
+	 */
+	private boolean						scheduled;
+
+	/**
+	 * Construct an instance of <tt>FontFilterModel</tt>. The model should be
+	 * added to the source as a listener to follow its changes.
+	 * 
+	 * @param source
+	 *            the source model of the families
+	 */
+	public FontFilterModel(ListModel<String> source)
+	{
+		this.source = source;
+		rebuild();
+	}
+
+	/**
+	 * Rebuild the index from the source, and filter again.
+	 */
+	public void rebuild()
+	{
+		scheduled = false;
+		String[] families = new String[source.getSize()];
+		for (int i = 0; i < families.length; i++)
+			families[i] = source.getElementAt(i);
+		index = new FontIndex(families);
+		allowed = null;
+		filter();
+	}
+
+	/**
+	 * Set the query to filter the families.
+	 * 
+	 * @param query
+	 *            the query, an empty query shows all the families
+	 */
+	public void setQuery(String query)
+	{
+		this.query = query == null ? "" : query; //$NON-NLS-1$
+		filter();
+	}
+
+	/**
+	 * Returns the query.
+	 * 
+	 * @return the query
+	 */
+	public String getQuery()
+	{
+		return query;
+	}
+
+	/**
+	 * Set the families allowed in addition to the query, which is reset when
+	 * the index is rebuilt.
+	 * 
+	 * @param allowed
+	 *            the indices of the allowed families in the index, or
+	 *            <code>null</code> for all
+	 */
+	public void setAllowed(BitSet allowed)
+	{
+		this.allowed = allowed;
+		filter();
+	}
+
+	/**
+	 * Returns the index of the source families.
+	 * 
+	 * @return the index
+	 */
+	public FontIndex getIndex()
+	{
+		return index;
+	}
+
+	/**
+	 * Filter the families, and fire the rows changed.
+	 */
+	private void filter()
+	{
+		int[] found = index.search(query, allowed);
+		String[] next = new String[found.length];
+		for (int i = 0; i < found.length; i++)
+			next[i] = index.getFamily(found[i]);
+		String[] old = view;
+		view = next;
+		if (!fireSubsequence(old, next, false)
+				&& !fireSubsequence(next, old, true))
+			fireRange(old, next);
+	}
+
+	/**
+	 * Fire the runs of the rows removed or added, if the shorter one is a
+	 * subsequence of the longer one.
+	 * 
+	 * @param longer
+	 *            the longer results
+	 * @param shorter
+	 *            the shorter results
+	 * @param added
+	 *            <code>true</code> if the longer one is the new results
+	 * @return <code>true</code> if the shorter one is a subsequence
+	 */
+	private boolean fireSubsequence(String[] longer, String[] shorter,
+			boolean added)
+	{
+		if (shorter.length > longer.length)
+			return false;
+		// check first, so that nothing is fired on failure
+		int j = 0;
+		for (int i = 0; i < longer.length && j < shorter.length; i++)
+			if (longer[i].equals(shorter[j]))
+				j++;
+		if (j < shorter.length)
+			return false;
+		j = 0;
+		int row = 0;
+		for (int i = 0; i < longer.length;)
+		{
+			if (j < shorter.length && longer[i].equals(shorter[j]))
+			{
+				i++;
+				j++;
+				row++;
+				continue;
+			}
+			int start = i;
+			while (i < longer.length
+					&& (j >= shorter.length || !longer[i].equals(shorter[j])))
+				i++;
+			int n = i - start;
+			if (added)
+			{
+				fireIntervalAdded(this, row, row + n - 1);
+				row += n;
+			}
+			else
+				fireIntervalRemoved(this, row, row + n - 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Fire the range between the common prefix and suffix as changed, and the
+	 * difference of the lengths as added or removed.
+	 * 
+	 * @param old
+	 *            the old results
+	 * @param next
+	 *            the new results
+	 */
+	private void fireRange(String[] old, String[] next)
+	{
+		int p = 0;
+		while (p < old.length && p < next.length && old[p].equals(next[p]))
+			p++;
+		int s = 0;
+		while (s < old.length - p && s < next.length - p
+				&& old[old.length - 1 - s].equals(next[next.length - 1 - s]))
+			s++;
+		int o = old.length - p - s, n = next.length - p - s;
+		int common = Math.min(o, n);
+		if (common > 0)
+			fireContentsChanged(this, p, p + common - 1);
+		if (n > o)
+			fireIntervalAdded(this, p + common, p + n - 1);
+		else if (o > n)
+			fireIntervalRemoved(this, p + common, p + o - 1);
+	}
+
+	/**
+	 * @see javax.swing.ListModel#getSize()
+	 */
+	@Override
+	public int getSize()
+	{
+		return view.length;
+	}
+
+	/**
+	 * @see javax.swing.ListModel#getElementAt(int)
+	 */
+	@Override
+	public String getElementAt(int index)
+	{
+		return view[index];
+	}
+
+	/**
+	 * Returns the row of the family.
+	 * 
+	 * @param family
+	 *            the font family
+	 * @return the row, or <code>-1</code> if not shown
+	 */
+	public int indexOf(String family)
+	{
+		for (int i = 0; i < view.length; i++)
+			if (view[i].equals(family))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Schedule a rebuild of the index after the current batch of changes.
+	 */
+	private void schedule()
+	{
+		if (scheduled)
+			return;
+		scheduled = true;
+		SwingUtilities.invokeLater(new Runnable()
+		{
+			public void run()
+			{
+				if (scheduled)
+					rebuild();
+			}
+		});
+	}
+
+	/**
+	 * @see javax.swing.event.ListDataListener#intervalAdded(javax.swing.event.ListDataEvent)
+	 */
+	@Override
+	public void intervalAdded(ListDataEvent e)
+	{
+		schedule();
+	}
+
+	/**
+	 * @see javax.swing.event.ListDataListener#intervalRemoved(javax.swing.event.ListDataEvent)
+	 */
+	@Override
+	public void intervalRemoved(ListDataEvent e)
+	{
+		schedule();
+	}
+
+	/**
+	 * @see javax.swing.event.ListDataListener#contentsChanged(javax.swing.event.ListDataEvent)
+	 */
+	@Override
+	public void contentsChanged(ListDataEvent e)
+	{
+		schedule();
+	}
+}
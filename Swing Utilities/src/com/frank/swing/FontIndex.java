@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * FontIndex.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The search index of the font families.
+ * <p>
+ * The <tt>FontIndex</tt> is built once from the families, and answers a
+ * query in time proportional to its matches instead of the families. The
+ * words of the names are kept sorted for the prefix search, and the
+ * trigrams of the names are kept in posting lists for the substring search,
+ * which intersects the lists of the trigrams of the query. The results are
+ * ranked by the exact match, the name prefix, the word prefix and the
+ * substring, then by the length of the name.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class FontIndex
+{
+	/**
+	 * The rank of the exact match.
+	 */
+	public static final int				EXACT		= 0;
+	/**
+	 * The rank of the name prefix match.
+	 */
+	public static final int				PREFIX		= 1;
+	/**
+	 * The rank of the word prefix match.
+	 */
+	public static final int				WORD		= 2;
+	/**
+	 * The rank of the substring match.
+	 */
+	public static final int				SUBSTRING	= 3;
+	/**
+	 * The families indexed.
+	 */
+	private final String[]				families;
+	/**
+	 * The lower case families.
+	 */
+	private final String[]				names;
+	/**
+	 * The sorted words, each of which runs to the end of its name, so that a
+	 * query of several words also matches the prefix.
+	 */
+	private final String[]				words;
+	/**
+	 * The families of the sorted words.
+	 */
+	private final int[]					owners;
+	/**
+	 * The posting lists of the trigrams.
+	 */
+	private final Map<Long, int[]>		trigrams	= new HashMap();
+
+	/**
+	 * Build the index of the families.
+	 * 
+	 * @param families
+	 *            the font families
+	 */
+	public FontIndex(String[] families)
+	{
+		this.families = families.clone();
+		names = new String[families.length];
+		List<Word> list = new ArrayList();
+		Map<Long, int[]> postings = new HashMap();
+		Map<Long, Integer> sizes = new HashMap();
+		for (int i = 0; i < families.length; i++)
+		{
+			String name = families[i].toLowerCase(Locale.ENGLISH);
+			names[i] = name;
+			for (int start = 0, j = 0; j <= name.length(); j++)
+				if (j == name.length()
+						|| !Character.isLetterOrDigit(name.charAt(j)))
+				{
+					if (j > start)
+						list.add(new Word(name.substring(start), i));
+					start = j + 1;
+				}
+			for (int j = 0; j + 3 <= name.length(); j++)
+			{
+				Long t = trigram(name, j);
+				int[] p = postings.get(t);
+				Integer n = sizes.get(t);
+				int size = n == null ? 0 : n;
+				if (size > 0 && p[size - 1] == i)
+					continue;
+				if (p == null)
+					p = new int[4];
+				else if (size == p.length)
+					p = Arrays.copyOf(p, size * 2);
+				p[size] = i;
+				postings.put(t, p);
+				sizes.put(t, size + 1);
+			}
+		}
+		for (Map.Entry<Long, int[]> e : postings.entrySet())
+			trigrams.put(e.getKey(),
+					Arrays.copyOf(e.getValue(), sizes.get(e.getKey())));
+		Word[] sorted = list.toArray(new Word[list.size()]);
+		Arrays.sort(sorted);
+		words = new String[sorted.length];
+		owners = new int[sorted.length];
+		for (int i = 0; i < sorted.length; i++)
+		{
+			words[i] = sorted[i].text;
+			owners[i] = sorted[i].owner;
+		}
+	}
+
+	/**
+	 * Returns the trigram at the offset.
+	 * 
+	 * @param s
+	 *            the string
+	 * @param i
+	 *            the offset
+	 * @return the trigram
+	 */
+	private static Long trigram(String s, int i)
+	{
+		return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16)
+				| s.charAt(i + 2);
+	}
+
+	/**
+	 * Returns the amount of the families indexed.
+	 * 
+	 * @return the amount of the families
+	 */
+	public int size()
+	{
+		return families.length;
+	}
+
+	/**
+	 * Returns the family of the index.
+	 * 
+	 * @param index
+	 *            the index of the family
+	 * @return the font family
+	 */
+	public String getFamily(int index)
+	{
+		return families[index];
+	}
+
+	/**
+	 * Search the families matching the query.
+	 * 
+	 * @param query
+	 *            the query, all the families match an empty query
+	 * @return the indices of the families matched, in the order of rank
+	 */
+	public int[] search(String query)
+	{
+		return search(query, null);
+	}
+
+	/**
+	 * Search the families matching the query among the allowed ones, such as
+	 * the families supporting some glyphs.
+	 * 
+	 * @param query
+	 *            the query, all the allowed families match an empty query
+	 * @param allowed
+	 *            the indices of the allowed families, or <code>null</code>
+	 *            for all
+	 * @return the indices of the families matched, in the order of rank
+	 */
+	public int[] search(String query, BitSet allowed)
+	{
+		String q = query == null ? "" : query.trim().toLowerCase( //$NON-NLS-1$
+				Locale.ENGLISH);
+		int n = families.length;
+		if (q.isEmpty())
+		{
+			int[] all = new int[n];
+			int k = 0;
+			for (int i = 0; i < n; i++)
+				if (allowed == null || allowed.get(i))
+					all[k++] = i;
+			return Arrays.copyOf(all, k);
+		}
+		// the candidates
+		int[] candidates = null;
+		if (q.length() >= 3)
+		{
+			for (int j = 0; j + 3 <= q.length(); j++)
+			{
+				int[] p = trigrams.get(trigram(q, j));
+				if (p == null)
+					return new int[0];
+				candidates = candidates == null ? p : intersect(candidates, p);
+			}
+		}
+		else
+		{
+			candidates = new int[n];
+			for (int i = 0; i < n; i++)
+				candidates[i] = i;
+		}
+		// the word prefixes
+		BitSet word = new BitSet(n);
+		// the lower bound, the first word not less than the query
+		int from = 0, to = words.length;
+		while (from < to)
+		{
+			int mid = from + to >>> 1;
+			if (words[mid].compareTo(q) < 0)
+				from = mid + 1;
+			else
+				to = mid;
+		}
+		for (int i = from; i < words.length && words[i].startsWith(q); i++)
+			word.set(owners[i]);
+		// rank the matches
+		long[] ranked = new long[candidates.length];
+		int k = 0;
+		for (int i : candidates)
+		{
+			if (allowed != null && !allowed.get(i))
+				continue;
+			String name = names[i];
+			int rank;
+			if (name.equals(q))
+				rank = EXACT;
+			else if (name.startsWith(q))
+				rank = PREFIX;
+			else if (word.get(i))
+				rank = WORD;
+			else if (name.contains(q))
+				rank = SUBSTRING;
+			else
+				continue;
+			ranked[k++] = (long) rank << 56
+					| (long) Math.min(name.length(), 0xFFFF) << 32 | i;
+		}
+		Arrays.sort(ranked, 0, k);
+		int[] result = new int[k];
+		for (int i = 0; i < k; i++)
+			result[i] = (int) ranked[i];
+		return result;
+	}
+
+	/**
+	 * Returns the intersection of two sorted lists.
+	 * 
+	 * @param a
+	 *            a sorted list
+	 * @param b
+	 *            another sorted list
+	 * @return the intersection
+	 */
+	private static int[] intersect(int[] a, int[] b)
+	{
+		int[] c = new int[Math.min(a.length, b.length)];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length && j < b.length)
+			if (a[i] < b[j])
+				i++;
+			else if (a[i] > b[j])
+				j++;
+			else
+			{
+				c[k++] = a[i];
+				i++;
+				j++;
+			}
+		return Arrays.copyOf(c, k);
+	}
+
+	/**
+	 * A word of a family name.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static class Word implements Comparable<Word>
+	{
+		/**
+		 * The text of the word to the end of the name.
+		 */
+		final String	text;
+		/**
+		 * The index of the family.
+		 */
+		final int		owner;
+
+		/**
+		 * Construct an instance of <tt>Word</tt>.
+		 * 
+		 * @param text
+		 *            the text to the end of the name
+		 * @param owner
+		 *            the index of the family
+		 */
+		Word(String text, int owner)
+		{
+			this.text = text;
+			this.owner = owner;
+		}
+
+		/**
+		 * @see java.lang.Comparable#compareTo(java.lang.Object)
+		 */
+		@Override
+		public int compareTo(Word o)
+		{
+			return text.compareTo(o.text);
+		}
+	}
+}
@@ -0,0 +1,564 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * FontPreviewRenderer.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.Icon;
+import javax.swing.JList;
+import javax.swing.ListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+/**
+ * The list cell renderer which previews each font family in its own face.
+ * <p>
+ * The <tt>FontPreviewRenderer</tt> never renders a font in the event dispatch
+ * thread. A row whose preview is not ready is shown as plain text, and its
+ * preview is requested from a background thread, which rasterizes the family
+ * name into an image and repaints the row when it is done. The requests are
+ * served newest first, and the oldest are dropped when the queue is full, so
+ * that scrolling fast through thousands of fonts renders only the rows which
+ * are still visible. The images are kept in a LRU cache keyed by the family,
+ * the size, the style and the color, so that the selected rows have their own
+ * previews in the selection foreground.
+ * </p>
+ * <p>
+ * The renderer sets a fixed cell width and height to the list it is installed
+ * on, so that the list never measures the rows out of the view. The width is
+ * that of the widest family name in the list font and in the preview size,
+ * measured again whenever the model changes, and the list can scroll
+ * horizontally to it. A preview which is still taller than the cell is
+ * scaled down to fit it, and a preview which is still wider is cut off with
+ * an ellipsis on purpose, since the faces cannot be measured in the event
+ * dispatch thread.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class FontPreviewRenderer extends DefaultListCellRenderer
+{
+	/**
+	 * serialVersionUID.
+	 */
+	private static final long							serialVersionUID	= -6231486914063742716L;
+	/**
+	 * The maximum amount of the pending requests.
+	 */
+	private static final int							MAX_PENDING			= 128;
+	/**
+	 * The image of the families which cannot display their own names.
+	 */
+	private static final BufferedImage				NONE				= new BufferedImage(
+																				1, 1, BufferedImage.TYPE_INT_ARGB);
+	/**
+	 * The list rendered.
+	 */
+	protected final JList								list;
+	/**
+	 * The images by the keys, confined to the event dispatch thread.
+	 */
+	private final LinkedHashMap<Preview, BufferedImage>	images;
+	/**
+	 * The keys requested and not ready yet, confined to the event dispatch
+	 * thread.
+	 */
+	private final Set<Preview>							pending				= new HashSet();
+	/**
+	 * The requests, the newest first.
+	 */
+	private final LinkedBlockingDeque<Preview>			requests			= new LinkedBlockingDeque();
+	/**
+	 * The icon painting the current image.
+	 */
+	private final PreviewIcon							icon				= new PreviewIcon();
+	/**
+	 * The maximum amount of the images cached.
+	 */
+	private int											capacity			= 256;
+	/**
+	 * The point size of the preview.
+	 */
+	private int											size;
+	/**
+	 * The style of the preview.
+	 */
+	private int											style				= Font.PLAIN;
+	/**
+	 * The flag whether the rendering thread is running.
+	 */
+	private boolean										running;
+	/**
+	 * The maximum width of the previews.
+	 */
+	private int											width;
+	/**
+	 * The maximum height of the previews.
+	 */
+	private int											height;
+
+	/**
+	 * Construct an instance of <tt>FontPreviewRenderer</tt> and install it on
+	 * the list.
+	 * 
+	 * @param list
+	 *            the list of the font families
+	 * @param size
+	 *            the point size of the preview
+	 */
+	public FontPreviewRenderer(JList list, int size)
+	{
+		this.list = list;
+		this.size = size;
+		images = new LinkedHashMap<Preview, BufferedImage>(16, 0.75f, true)
+		{
+			/**
+			 * serialVersionUID.
+			 */
+			private static final long	serialVersionUID	= 8813079406735914702L;
+
+			/**
+			 * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+			 */
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Preview, BufferedImage> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+		list.setCellRenderer(this);
+		ModelListener listener = new ModelListener();
+		list.addPropertyChangeListener(listener);
+		list.getModel().addListDataListener(listener);
+		updateCellSize();
+	}
+
+	/**
+	 * Set the style and the point size of the preview.
+	 * 
+	 * @param style
+	 *            the font style
+	 * @param size
+	 *            the point size
+	 */
+	public void setPreviewFont(int style, int size)
+	{
+		this.style = style;
+		this.size = size;
+		requests.clear();
+		pending.clear();
+		updateCellSize();
+		list.repaint();
+	}
+
+	/**
+	 * Set the maximum amount of the images cached.
+	 * 
+	 * @param capacity
+	 *            the cache capacity
+	 */
+	public void setCapacity(int capacity)
+	{
+		this.capacity = Math.max(1, capacity);
+	}
+
+	/**
+	 * Set the fixed cell width and height of the list by the widest family
+	 * name in the model and the preview size, so that the list does not call
+	 * the renderer of every row to measure it.
+	 */
+	private void updateCellSize()
+	{
+		Font font = list.getFont();
+		FontMetrics fm = list.getFontMetrics(font);
+		FontMetrics preview = FontCache.getDefault().getFontMetrics(
+				font.getName(), style, size);
+		ListModel model = list.getModel();
+		int w = 0;
+		for (int i = 0; i < model.getSize(); i++)
+		{
+			Object value = model.getElementAt(i);
+			if (value == null)
+				continue;
+			String name = value.toString();
+			w = Math.max(w, Math.max(fm.stringWidth(name), preview
+					.stringWidth(name)));
+		}
+		width = Math.max(1, w);
+		height = Math.max(fm.getHeight(), preview.getHeight());
+		list.setFixedCellWidth(width + 8);
+		list.setFixedCellHeight(height + 4);
+	}
+
+	/**
+	 * @see javax.swing.DefaultListCellRenderer#getListCellRendererComponent(javax.swing.JList,
+	 *      java.lang.Object, int, boolean, boolean)
+	 */
+	@Override
+	public Component getListCellRendererComponent(JList list, Object value,
+			int index, boolean isSelected, boolean cellHasFocus)
+	{
+		super.getListCellRendererComponent(list, value, index, isSelected,
+				cellHasFocus);
+		if (value == null)
+			return this;
+		Preview key = new Preview(value.toString(), style, size,
+				getForeground(), width, height);
+		BufferedImage image = images.get(key);
+		if (image == null)
+			request(key);
+		else if (image != NONE)
+		{
+			icon.image = image;
+			setIcon(icon);
+			setText(null);
+		}
+		return this;
+	}
+
+	/**
+	 * Request the preview of the key.
+	 * 
+	 * @param key
+	 *            the key of the preview
+	 */
+	private void request(Preview key)
+	{
+		if (!pending.add(key))
+			return;
+		requests.offerFirst(key);
+		while (requests.size() > MAX_PENDING)
+		{
+			Preview dropped = requests.pollLast();
+			if (dropped != null)
+				pending.remove(dropped);
+		}
+		synchronized (this)
+		{
+			if (running)
+				return;
+			running = true;
+		}
+		Thread t = new Thread(new Runnable()
+		{
+			public void run()
+			{
+				work();
+			}
+		}, "FontPreviewRenderer"); //$NON-NLS-1$
+		t.setDaemon(true);
+		t.start();
+	}
+
+	/**
+	 * Render the requests until idle for a while. This method is called on
+	 * the rendering thread.
+	 */
+	private void work()
+	{
+		while (true)
+		{
+			Preview key;
+			try
+			{
+				key = requests.pollFirst(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e)
+			{
+				key = null;
+			}
+			if (key == null)
+				synchronized (this)
+				{
+					if (requests.isEmpty())
+					{
+						running = false;
+						return;
+					}
+					continue;
+				}
+			final Preview k = key;
+			final BufferedImage image = render(key);
+			SwingUtilities.invokeLater(new Runnable()
+			{
+				public void run()
+				{
+					if (pending.remove(k))
+					{
+						images.put(k, image);
+						repaint(k.family);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Render the family name in its own face, scaled down to the height of
+	 * the key and cut off with an ellipsis at its width. This method is
+	 * called on the rendering thread.
+	 * 
+	 * @param key
+	 *            the key of the preview
+	 * @return the image, or {@link #NONE} if the family cannot display its
+	 *         name
+	 */
+	protected BufferedImage render(Preview key)
+	{
+		Font font = new Font(key.family, key.style, key.size);
+		if (font.canDisplayUpTo(key.family) != -1)
+			return NONE;
+		BufferedImage probe = new BufferedImage(1, 1,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = probe.createGraphics();
+		FontMetrics fm = g.getFontMetrics(font);
+		if (fm.getHeight() > key.height)
+		{
+			font = font.deriveFont(font.getSize2D() * key.height
+					/ fm.getHeight());
+			fm = g.getFontMetrics(font);
+		}
+		g.dispose();
+		String text = key.family;
+		if (fm.stringWidth(text) > key.width)
+		{
+			String ellipsis = font.canDisplay('\u2026') ? "\u2026" : "..."; //$NON-NLS-1$ //$NON-NLS-2$
+			int n = text.length();
+			int room = key.width - fm.stringWidth(ellipsis);
+			while (n > 0 && fm.stringWidth(text.substring(0, n)) > room)
+				n--;
+			text = text.substring(0, n) + ellipsis;
+		}
+		int w = Math.max(1, Math.min(key.width, fm.stringWidth(text)));
+		int h = Math.max(1, Math.min(key.height, fm.getHeight()));
+		BufferedImage image = new BufferedImage(w, h,
+				BufferedImage.TYPE_INT_ARGB);
+		g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+				RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g.setFont(font);
+		g.setColor(key.color);
+		g.drawString(text, 0, fm.getAscent());
+		g.dispose();
+		return image;
+	}
+
+	/**
+	 * Repaint the visible rows of the family.
+	 * 
+	 * @param family
+	 *            the font family
+	 */
+	private void repaint(String family)
+	{
+		int first = list.getFirstVisibleIndex();
+		int last = list.getLastVisibleIndex();
+		for (int i = Math.max(first, 0); i <= last; i++)
+			if (family.equals(list.getModel().getElementAt(i)))
+				list.repaint(list.getCellBounds(i, i));
+	}
+
+	/**
+	 * The listener which measures the cells again when the model, its
+	 * families or the list font change.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private final class ModelListener implements ListDataListener,
+			PropertyChangeListener
+	{
+		/**
+		 * @see java.beans.PropertyChangeListener#propertyChange(java.beans.PropertyChangeEvent)
+		 */
+		@Override
+		public void propertyChange(PropertyChangeEvent e)
+		{
+			if ("model".equals(e.getPropertyName())) //$NON-NLS-1$
+			{
+				((ListModel) e.getOldValue()).removeListDataListener(this);
+				((ListModel) e.getNewValue()).addListDataListener(this);
+				updateCellSize();
+			}
+			else if ("font".equals(e.getPropertyName())) //$NON-NLS-1$
+				updateCellSize();
+		}
+
+		/**
+		 * @see javax.swing.event.ListDataListener#intervalAdded(javax.swing.event.ListDataEvent)
+		 */
+		@Override
+		public void intervalAdded(ListDataEvent e)
+		{
+			updateCellSize();
+		}
+
+		/**
+		 * @see javax.swing.event.ListDataListener#intervalRemoved(javax.swing.event.ListDataEvent)
+		 */
+		@Override
+		public void intervalRemoved(ListDataEvent e)
+		{
+			updateCellSize();
+		}
+
+		/**
+		 * @see javax.swing.event.ListDataListener#contentsChanged(javax.swing.event.ListDataEvent)
+		 */
+		@Override
+		public void contentsChanged(ListDataEvent e)
+		{
+			updateCellSize();
+		}
+	}
+
+	/**
+	 * The key of a preview.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	protected static class Preview
+	{
+		/**
+		 * The font family.
+		 */
+		final String	family;
+		/**
+		 * The font style.
+		 */
+		final int		style;
+		/**
+		 * The point size.
+		 */
+		final int		size;
+		/**
+		 * The color to render.
+		 */
+		final Color		color;
+		/**
+		 * The maximum width of the image.
+		 */
+		final int		width;
+		/**
+		 * The maximum height of the image.
+		 */
+		final int		height;
+
+		/**
+		 * Construct an instance of <tt>Preview</tt>.
+		 * 
+		 * @param family
+		 *            the font family
+		 * @param style
+		 *            the font style
+		 * @param size
+		 *            the point size
+		 * @param color
+		 *            the color to render
+		 * @param width
+		 *            the maximum width of the image
+		 * @param height
+		 *            the maximum height of the image
+		 */
+		Preview(String family, int style, int size, Color color, int width,
+				int height)
+		{
+			this.family = family;
+			this.style = style;
+			this.size = size;
+			this.color = color;
+			this.width = width;
+			this.height = height;
+		}
+
+		/**
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode()
+		{
+			return ((((family.hashCode() * 31 + style) * 31 + size) * 31 + color
+					.getRGB()) * 31 + width) * 31 + height;
+		}
+
+		/**
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Preview))
+				return false;
+			Preview p = (Preview) obj;
+			return style == p.style && size == p.size && width == p.width
+					&& height == p.height
+					&& color.getRGB() == p.color.getRGB()
+					&& family.equals(p.family);
+		}
+	}
+
+	/**
+	 * The icon painting the current image.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static class PreviewIcon implements Icon
+	{
+		/**
+		 * The image to paint.
+		 */
+		BufferedImage	image;
+
+		/**
+		 * @see javax.swing.Icon#paintIcon(java.awt.Component,
+		 *      java.awt.Graphics, int, int)
+		 */
+		@Override
+		public void paintIcon(Component c, Graphics g, int x, int y)
+		{
+			g.drawImage(image, x, y, null);
+		}
+
+		/**
+		 * @see javax.swing.Icon#getIconWidth()
+		 */
+		@Override
+		public int getIconWidth()
+		{
+			return image.getWidth();
+		}
+
+		/**
+		 * @see javax.swing.Icon#getIconHeight()
+		 */
+		@Override
+		public int getIconHeight()
+		{
+			return image.getHeight();
+		}
+	}
+}
@@ -8,18 +8,18 @@ package com.frank.swing;
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.awt.Font;
-import java.awt.GraphicsEnvironment;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.Window;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Locale;
 
 import javax.swing.AbstractListModel;
 import javax.swing.DefaultComboBoxModel;
+import javax.swing.DefaultListModel;
 import javax.swing.JButton;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
@@ -27,8 +27,14 @@ import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
+import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.JPopupMenu;
@@ -62,6 +68,34 @@ public class JFontChooser extends JDialog
 	private JComboBox			comboFontStyle;
 	private JList				listFontSize;
 	private JList				listFontName;
+	/**
+	 * The shared catalog of the font families.
+	 */
+	private final FontCatalog	catalog				= FontCatalog.getDefault();
+	/**
+	 * The listener to select the font when the catalog is loaded.
+	 */
+	private ListDataListener	catalogListener;
+	/**
+	 * The families of the catalog filtered by the search field.
+	 */
+	private FontFilterModel		filterModel;
+	private JTextField			txtSearch;
+	private JCheckBoxMenuItem	mntmCoverage;
+	/**
+	 * The shared index of the characters the families can display.
+	 */
+	private FontCoverageIndex	coverage			= FontCoverageIndex
+														.getDefault();
+	/**
+	 * The index of the families filtered by the coverage, or
+	 * <code>null</code> if not filtered.
+	 */
+	private FontIndex			coveredIndex;
+	/**
+	 * The sample text the families are filtered by.
+	 */
+	private String				coveredText;
 
 	/**
 	 * Construct a modeless <tt>JFontChooser</tt>. <tt>JFontChooser</tt> can
@@ -142,9 +176,20 @@ public class JFontChooser extends JDialog
 				if (s == null || s.equals(""))//$NON-NLS-1$
 					return;
 				lblSample.setText(s);
+				cover();
 			}
 		});
 		popupMenu.add(mntmChangeSampleText);
+		mntmCoverage = new JCheckBoxMenuItem(
+				Messages.getString("JFontChooser.16")); //$NON-NLS-1$
+		mntmCoverage.addActionListener(new ActionListener()
+		{
+			public void actionPerformed(ActionEvent e)
+			{
+				cover();
+			}
+		});
+		popupMenu.add(mntmCoverage);
 		lblSample = new JLabel(Messages.getString("JFontChooser.7")); //$NON-NLS-1$
 		panelSample.add(lblSample);
 		splitPane = new JSplitPane();
@@ -153,8 +198,15 @@ public class JFontChooser extends JDialog
 		scrollPaneFontNames.setBorder(new TitledBorder(null, Messages
 				.getString("JFontChooser.8"), //$NON-NLS-1$
 				TitledBorder.LEADING, TitledBorder.TOP, null, null));
-		splitPane.setLeftComponent(scrollPaneFontNames);
+		JPanel panelFontNames = new JPanel();
+		panelFontNames.setLayout(new BorderLayout(0, 0));
+		splitPane.setLeftComponent(panelFontNames);
+		txtSearch = new JTextField();
+		txtSearch.setToolTipText(Messages.getString("JFontChooser.15")); //$NON-NLS-1$
+		panelFontNames.add(txtSearch, BorderLayout.NORTH);
+		panelFontNames.add(scrollPaneFontNames, BorderLayout.CENTER);
 		listFontName = new JList();
+		new FontPreviewRenderer(listFontName, 16);
 		scrollPaneFontNames.setViewportView(listFontName);
 		JPanel panelFontStypleAndSize = new JPanel();
 		splitPane.setRightComponent(panelFontStypleAndSize);
@@ -200,41 +252,57 @@ public class JFontChooser extends JDialog
 	{
 		// initialize the default font
 		font = lblSample.getFont();
-		// list for font name
-		listFontName.setModel(new AbstractListModel<String>()
+		// list for font name, filled in when the catalog is loaded and
+		// filtered by the search field
+		filterModel = new FontFilterModel(catalog);
+		txtSearch.getDocument().addDocumentListener(new DocumentListener()
 		{
-			/**
-			 * serialVersionUID.
-			 */
-			private static final long	serialVersionUID	= -5818399397689713265L;
-			String[]					names				= GraphicsEnvironment
-																	.getLocalGraphicsEnvironment()
-																	.getAvailableFontFamilyNames(
-																			Locale.getDefault());
+			public void insertUpdate(DocumentEvent e)
+			{
+				search();
+			}
 
-			@Override
-			public int getSize()
+			public void removeUpdate(DocumentEvent e)
 			{
-				return names.length;
+				search();
 			}
 
-			@Override
-			public String getElementAt(int index)
+			public void changedUpdate(DocumentEvent e)
 			{
-				return names[index];
+				search();
 			}
 		});
 		listFontName.addListSelectionListener(new ListSelectionListener()
 		{
 			public void valueChanged(ListSelectionEvent e)
 			{
-				Font f = new Font((String) listFontName.getSelectedValue(),
-						font.getStyle(), font.getSize());
-				font = f;
+				String name = (String) listFontName.getSelectedValue();
+				if (name == null)
+					return;
+				font = FontCache.getDefault().getFont(name, font.getStyle(),
+						font.getSize());
 				lblSample.setFont(font);
 			}
 		});
-		listFontName.setSelectedIndex(0);
+		catalogListener = new ListDataListener()
+		{
+			public void intervalAdded(ListDataEvent e)
+			{
+				selectFamily();
+				recover();
+			}
+
+			public void intervalRemoved(ListDataEvent e)
+			{
+				recover();
+			}
+
+			public void contentsChanged(ListDataEvent e)
+			{
+				selectFamily();
+				recover();
+			}
+		};
 		// combo box for font style
 		String[] styleNames = new String[] {
 				Messages.getString("JFontChooser.11"), //$NON-NLS-1$
@@ -249,9 +317,9 @@ public class JFontChooser extends JDialog
 
 			public void actionPerformed(ActionEvent e)
 			{
-				Font f = new Font(font.getName(), styles[comboFontStyle
-						.getSelectedIndex()], font.getSize());
-				font = f;
+				font = FontCache.getDefault().deriveFont(font,
+						styles[comboFontStyle.getSelectedIndex()],
+						font.getSize());
 				lblSample.setFont(font);
 			}
 		});
@@ -284,9 +352,9 @@ public class JFontChooser extends JDialog
 		{
 			public void valueChanged(ListSelectionEvent e)
 			{
-				Font f = new Font(font.getName(), font.getStyle(),
+				font = FontCache.getDefault().deriveFont(font,
+						font.getStyle(),
 						(Integer) listFontSize.getSelectedValue());
-				font = f;
 				lblSample.setFont(font);
 			}
 		});
@@ -294,6 +362,140 @@ public class JFontChooser extends JDialog
 		splitPane.resetToPreferredSizes();
 	}
 
+	/**
+	 * Filter the families by the search field, and keep the current family
+	 * selected if it matches, otherwise select the best match.
+	 */
+	private void search()
+	{
+		filterModel.setQuery(txtSearch.getText());
+		reselect();
+	}
+
+	/**
+	 * Keep the current family selected if it is shown, otherwise select the
+	 * best match.
+	 */
+	private void reselect()
+	{
+		int index = filterModel.indexOf(font.getFamily());
+		if (index >= 0)
+		{
+			listFontName.setSelectedIndex(index);
+			listFontName.ensureIndexIsVisible(index);
+		}
+		else if (filterModel.getSize() > 0)
+		{
+			listFontName.setSelectedIndex(0);
+			listFontName.ensureIndexIsVisible(0);
+		}
+		else
+			listFontName.clearSelection();
+	}
+
+	/**
+	 * Filter the families by whether they can display the sample text, or
+	 * show all of them if the filter is turned off. The characters are looked
+	 * up in the coverage index in a background thread the first time they are
+	 * asked for.
+	 */
+	private void cover()
+	{
+		final FontIndex index = filterModel.getIndex();
+		if (!mntmCoverage.isSelected())
+		{
+			if (coveredIndex != null)
+			{
+				coveredIndex = null;
+				filterModel.setAllowed(null);
+				reselect();
+			}
+			return;
+		}
+		final String text = lblSample.getText();
+		if (index == coveredIndex && text.equals(coveredText))
+			return;
+		coveredIndex = index;
+		coveredText = text;
+		coverage.prepare(text, index, new Runnable()
+		{
+			public void run()
+			{
+				if (index != coveredIndex || !text.equals(coveredText)
+						|| index != filterModel.getIndex())
+					return;
+				filterModel.setAllowed(coverage.filter(text, index));
+				reselect();
+			}
+		});
+	}
+
+	/**
+	 * Filter the families by the coverage again later if the index is rebuilt,
+	 * which resets the filter.
+	 */
+	private void recover()
+	{
+		if (coveredIndex == null || coveredIndex == filterModel.getIndex())
+			return;
+		SwingUtilities.invokeLater(new Runnable()
+		{
+			public void run()
+			{
+				cover();
+			}
+		});
+	}
+
+	/**
+	 * Select the family of the current font if no family is selected, or the
+	 * first family if it is not in the catalog.
+	 */
+	private void selectFamily()
+	{
+		if (!listFontName.isSelectionEmpty() || filterModel.getSize() == 0)
+			return;
+		Font f = font;
+		int index = filterModel.indexOf(f.getFamily());
+		listFontName.setSelectedIndex(Math.max(index, 0));
+		listFontName.ensureIndexIsVisible(Math.max(index, 0));
+		if (index >= 0)
+			lblSample.setFont(font = f);
+	}
+
+	/**
+	 * Attach the font list to the shared font catalog.
+	 * 
+	 * @see java.awt.Dialog#addNotify()
+	 */
+	@Override
+	public void addNotify()
+	{
+		super.addNotify();
+		// the listeners are notified in reverse order, so the list updates
+		// before the selection
+		catalog.addListDataListener(filterModel);
+		filterModel.addListDataListener(catalogListener);
+		listFontName.setModel(filterModel);
+		filterModel.rebuild();
+		selectFamily();
+	}
+
+	/**
+	 * Detach the font list from the shared font catalog, so that the catalog
+	 * does not keep the disposed dialogs.
+	 * 
+	 * @see java.awt.Window#removeNotify()
+	 */
+	@Override
+	public void removeNotify()
+	{
+		catalog.removeListDataListener(filterModel);
+		filterModel.removeListDataListener(catalogListener);
+		listFontName.setModel(new DefaultListModel());
+		super.removeNotify();
+	}
+
 	/**
 	 * Returns the user selected font.
 	 * 
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * LayoutMonitor.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The monitor of the layout passes performed by {@link ResizeAdapter},
+ * {@link ResizeLayout} and {@link AnchorLayout}.
+ * <p>
+ * When enabled, the monitor counts the layout passes of each target component
+ * and the passes during each event dispatch, and measures the time of each
+ * pass. A target is suspected in a feedback loop when it is laid out more than
+ * {@link #setLoopThreshold(int) the threshold} times within
+ * {@link #setLoopWindow(long) the window}, or when its size oscillates back to
+ * the previous size. The records are exported as a JMX MBean by
+ * {@link #register()}.
+ * </p>
+ * <p>
+ * The monitor is disabled by default, in which case recording costs one
+ * volatile read per pass.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class LayoutMonitor implements LayoutMonitorMBean
+{
+	/**
+	 * The default monitor.
+	 */
+	private static final LayoutMonitor		DEFAULT			= new LayoutMonitor();
+	/**
+	 * The object name of the default monitor.
+	 */
+	public static final String				OBJECT_NAME		= "com.frank.swing:type=LayoutMonitor"; //$NON-NLS-1$
+	/**
+	 * The flag whether the layout passes are monitored.
+	 */
+	private volatile boolean				enabled;
+	/**
+	 * The records of the target components.
+	 */
+	private WeakHashMap<Component, Record>	records			= new WeakHashMap();
+	/**
+	 * The amount of layout passes.
+	 */
+	private long							totalPasses;
+	/**
+	 * The total nanoseconds of layout passes.
+	 */
+	private long							totalTime;
+	/**
+	 * The maximum nanoseconds of one layout pass.
+	 */
+	private long							maxTime;
+	/**
+	 * The event being dispatched during the last pass, weakly referenced so
+	 * that the event and its source are not kept.
+	 */
+	private WeakReference<AWTEvent>			lastEvent		= new WeakReference(null);
+	/**
+	 * The amount of passes during the last event.
+	 */
+	private int								eventPasses;
+	/**
+	 * The maximum amount of passes during one event.
+	 */
+	private int								maxPassesPerEvent;
+	/**
+	 * The amount of feedback loops detected.
+	 */
+	private long							loops;
+	/**
+	 * The window in nanoseconds to count the passes of a target.
+	 */
+	private long							loopWindow		= 100000000L;
+	/**
+	 * The maximum amount of passes of a target within the window.
+	 */
+	private int								loopThreshold	= 30;
+
+	/**
+	 * Returns the default monitor used by the layouts of this library.
+	 * 
+	 * @return the default monitor
+	 */
+	public static LayoutMonitor getDefault()
+	{
+		return DEFAULT;
+	}
+
+	/**
+	 * Begin a layout pass.
+	 * 
+	 * @return the start time, or <code>0</code> if not enabled
+	 */
+	public long begin()
+	{
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * End a layout pass of the specified target.
+	 * 
+	 * @param target
+	 *            the component laid out
+	 * @param start
+	 *            the start time returned by {@link #begin()}
+	 */
+	public void end(Component target, long start)
+	{
+		if (start == 0L)
+			return;
+		long now = System.nanoTime();
+		long time = now - start;
+		synchronized (this)
+		{
+			totalPasses++;
+			totalTime += time;
+			maxTime = Math.max(maxTime, time);
+			AWTEvent event = EventQueue.getCurrentEvent();
+			if (event != lastEvent.get())
+			{
+				lastEvent = new WeakReference(event);
+				eventPasses = 0;
+			}
+			maxPassesPerEvent = Math.max(maxPassesPerEvent, ++eventPasses);
+			Record r = records.get(target);
+			if (r == null)
+				records.put(target, r = new Record());
+			r.passes++;
+			r.time += time;
+			if (now - r.windowStart > loopWindow)
+			{
+				r.windowStart = now;
+				r.windowPasses = 0;
+			}
+			int w = target.getWidth(), h = target.getHeight();
+			// a size changed back within the window is a loop, not a user
+			// dragging the window back and forth
+			boolean oscillating = (w != r.width || h != r.height)
+					&& w == r.previousWidth && h == r.previousHeight
+					&& now - r.resized <= loopWindow;
+			if (w != r.width || h != r.height)
+			{
+				r.previousWidth = r.width;
+				r.previousHeight = r.height;
+				r.width = w;
+				r.height = h;
+				r.resized = now;
+			}
+			if (oscillating || ++r.windowPasses == loopThreshold)
+			{
+				r.loops++;
+				loops++;
+			}
+		}
+	}
+
+	/**
+	 * Register the default monitor to the platform MBean server with name
+	 * {@link #OBJECT_NAME}.
+	 * 
+	 * @throws JMException
+	 *             if the registration failed
+	 */
+	public static void register() throws JMException
+	{
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name))
+			ManagementFactory.getPlatformMBeanServer().registerMBean(DEFAULT,
+					name);
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#isEnabled()
+	 */
+	@Override
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#setEnabled(boolean)
+	 */
+	@Override
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Set the window to count the passes of a target for loop detection.
+	 * 
+	 * @param millis
+	 *            the window in milliseconds
+	 */
+	public synchronized void setLoopWindow(long millis)
+	{
+		loopWindow = millis * 1000000L;
+	}
+
+	/**
+	 * Set the maximum amount of passes of a target within the window, a target
+	 * exceeding it is suspected in a feedback loop.
+	 * 
+	 * @param threshold
+	 *            the maximum amount of passes
+	 */
+	public synchronized void setLoopThreshold(int threshold)
+	{
+		loopThreshold = threshold;
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#getTotalPasses()
+	 */
+	@Override
+	public synchronized long getTotalPasses()
+	{
+		return totalPasses;
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#getTotalTime()
+	 */
+	@Override
+	public synchronized long getTotalTime()
+	{
+		return totalTime;
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#getMaxTime()
+	 */
+	@Override
+	public synchronized long getMaxTime()
+	{
+		return maxTime;
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#getMaxPassesPerEvent()
+	 */
+	@Override
+	public synchronized int getMaxPassesPerEvent()
+	{
+		return maxPassesPerEvent;
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#getLoopsDetected()
+	 */
+	@Override
+	public synchronized long getLoopsDetected()
+	{
+		return loops;
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#getSuspects()
+	 */
+	@Override
+	public synchronized String[] getSuspects()
+	{
+		List<String> list = new ArrayList();
+		for (Entry<Component, Record> e : records.entrySet())
+			if (e.getValue().loops > 0)
+				list.add(describe(e.getKey(), e.getValue()));
+		return list.toArray(new String[list.size()]);
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#getSlowestTargets()
+	 */
+	@Override
+	public synchronized String[] getSlowestTargets()
+	{
+		List<Entry<Component, Record>> list = new ArrayList(records.entrySet());
+		Collections.sort(list, new Comparator<Entry<Component, Record>>()
+		{
+			public int compare(Entry<Component, Record> o1,
+					Entry<Component, Record> o2)
+			{
+				return Long.compare(o2.getValue().time, o1.getValue().time);
+			}
+		});
+		int n = Math.min(10, list.size());
+		String[] result = new String[n];
+		for (int i = 0; i < n; i++)
+			result[i] = describe(list.get(i).getKey(), list.get(i).getValue());
+		return result;
+	}
+
+	/**
+	 * @see com.frank.swing.LayoutMonitorMBean#reset()
+	 */
+	@Override
+	public synchronized void reset()
+	{
+		records.clear();
+		totalPasses = totalTime = maxTime = loops = 0;
+		maxPassesPerEvent = eventPasses = 0;
+		lastEvent = new WeakReference(null);
+	}
+
+	/**
+	 * Returns the description of the target and its record.
+	 * 
+	 * @param c
+	 *            the target component
+	 * @param r
+	 *            the record
+	 * @return the description
+	 */
+	private static String describe(Component c, Record r)
+	{
+		StringBuilder sb = new StringBuilder();
+		for (Component p = c; p != null; p = p.getParent())
+		{
+			if (p != c)
+				sb.insert(0, '/');
+			String name = p.getName();
+			sb.insert(0, name == null ? p.getClass().getSimpleName() : name);
+		}
+		return String.format("%s: %d passes, %.3fms, %d loops", sb, r.passes, //$NON-NLS-1$
+				r.time / 1e6, r.loops);
+	}
+
+	/**
+	 * The layout record of a target component.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static class Record
+	{
+		long	passes;
+		long	time;
+		long	loops;
+		long	windowStart;
+		long	resized;
+		int		windowPasses;
+		int		width;
+		int		height;
+		int		previousWidth	= -1;
+		int		previousHeight	= -1;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * LayoutMonitorMBean.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+/**
+ * The management interface of {@link LayoutMonitor}.
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public interface LayoutMonitorMBean
+{
+	/**
+	 * Returns <code>true</code> if the layout passes are monitored.
+	 * 
+	 * @return <code>true</code> if enabled
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Set whether the layout passes are monitored.
+	 * 
+	 * @param enabled
+	 *            <code>true</code> to enable
+	 */
+	public void setEnabled(boolean enabled);
+
+	/**
+	 * Returns the amount of layout passes recorded.
+	 * 
+	 * @return the amount of layout passes
+	 */
+	public long getTotalPasses();
+
+	/**
+	 * Returns the total nanoseconds consumed in the layout passes.
+	 * 
+	 * @return the total nanoseconds
+	 */
+	public long getTotalTime();
+
+	/**
+	 * Returns the maximum nanoseconds consumed in one layout pass.
+	 * 
+	 * @return the maximum nanoseconds
+	 */
+	public long getMaxTime();
+
+	/**
+	 * Returns the maximum amount of layout passes during one event dispatch.
+	 * 
+	 * @return the maximum amount of passes per event
+	 */
+	public int getMaxPassesPerEvent();
+
+	/**
+	 * Returns the amount of feedback loops detected.
+	 * 
+	 * @return the amount of loops
+	 */
+	public long getLoopsDetected();
+
+	/**
+	 * Returns the descriptions of the components suspected in feedback loops.
+	 * 
+	 * @return the suspected components
+	 */
+	public String[] getSuspects();
+
+	/**
+	 * Returns the descriptions of the components with the most layout time,
+	 * the slowest first.
+	 * 
+	 * @return the slowest components
+	 */
+	public String[] getSlowestTargets();
+
+	/**
+	 * Clear all the records.
+	 */
+	public void reset();
+}
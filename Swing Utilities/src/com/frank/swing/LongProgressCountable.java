@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * LongProgressCountable.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+/**
+ * A interface defines the progress of a task or procedure with 64-bit counts.
+ * It is the same as {@link ProgressCountable}, but the amount of steps can
+ * exceed the range of <code>int</code>, e.g. the bytes of a transfer.
+ * {@link ProgressAdapters} converts it from and to the <code>int</code>-based
+ * interfaces.
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public interface LongProgressCountable
+{
+	/**
+	 * To notify the component that the progress is in proceeding.
+	 * 
+	 * @param total
+	 *            the amount of the steps for the current task or procedure
+	 */
+	public void progressStart(long total);
+
+	/**
+	 * To notify the component that the progress has moved forward one step.
+	 */
+	public void progressUpdate();
+
+	/**
+	 * To notify the component that the progress has move forward several step.
+	 * 
+	 * @param steps
+	 *            the amount of the steps which the progress has moved, which
+	 *            should not exceed {@link ProgressCounter#MAX_STEPS}
+	 *            (<tt>2<sup>47</sup> - 1</tt>), larger amounts are saturated
+	 *            by {@link ProgressCounter}
+	 */
+	public void progressUpdate(long steps);
+
+	/**
+	 * To notify the component that the progress has reached its end.
+	 */
+	public void progressStop();
+}
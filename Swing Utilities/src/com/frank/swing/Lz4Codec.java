@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * Lz4Codec.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+
+/**
+ * The pure Java codec of the LZ4 block format.
+ * <p>
+ * The <tt>Lz4Codec</tt> compresses by a single-probe hash table of 4-byte
+ * sequences, which trades the ratio for the speed, and writes the sequences of
+ * the literals and the matches in the LZ4 block format, so that the blocks can
+ * also be read by the other LZ4 implementations. The raw length is not
+ * recorded in the block, it should be kept by the caller.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class Lz4Codec
+{
+	/**
+	 * The minimum length of a match.
+	 */
+	private static final int	MIN_MATCH		= 4;
+	/**
+	 * The bits of the hash table.
+	 */
+	private static final int	HASH_LOG		= 12;
+	/**
+	 * The bytes at the end which are always literals.
+	 */
+	private static final int	LAST_LITERALS	= 5;
+	/**
+	 * The bytes at the end where no match starts.
+	 */
+	private static final int	MF_LIMIT		= 12;
+	/**
+	 * The maximum offset of a match.
+	 */
+	private static final int	MAX_OFFSET		= 65535;
+
+	/**
+	 * Utility class, no instance.
+	 */
+	private Lz4Codec()
+	{
+	}
+
+	/**
+	 * Returns the maximum size of the compressed block of the raw length.
+	 * 
+	 * @param length
+	 *            the raw length
+	 * @return the maximum compressed size
+	 */
+	public static int maxCompressedLength(int length)
+	{
+		return length + length / 255 + 16;
+	}
+
+	/**
+	 * Compress the bytes into a block.
+	 * 
+	 * @param src
+	 *            the bytes to compress
+	 * @param off
+	 *            the offset of the bytes
+	 * @param len
+	 *            the length of the bytes
+	 * @return the compressed block
+	 */
+	public static byte[] compress(byte[] src, int off, int len)
+	{
+		byte[] dst = new byte[maxCompressedLength(len)];
+		int op = 0;
+		int end = off + len;
+		int anchor = off;
+		if (len > MF_LIMIT)
+		{
+			int[] table = new int[1 << HASH_LOG];
+			Arrays.fill(table, -1);
+			int matchLimit = end - LAST_LITERALS;
+			int mfLimit = end - MF_LIMIT;
+			int ip = off;
+			while (ip < mfLimit)
+			{
+				int h = hash(readInt(src, ip));
+				int ref = table[h];
+				table[h] = ip;
+				if (ref < 0 || ip - ref > MAX_OFFSET
+						|| readInt(src, ref) != readInt(src, ip))
+				{
+					ip++;
+					continue;
+				}
+				while (ip > anchor && ref > off && src[ip - 1] == src[ref - 1])
+				{
+					ip--;
+					ref--;
+				}
+				int ml = MIN_MATCH;
+				while (ip + ml < matchLimit && src[ip + ml] == src[ref + ml])
+					ml++;
+				op = sequence(src, anchor, ip - anchor, dst, op, ip - ref, ml);
+				ip += ml;
+				anchor = ip;
+			}
+		}
+		op = sequence(src, anchor, end - anchor, dst, op, 0, 0);
+		return Arrays.copyOf(dst, op);
+	}
+
+	/**
+	 * Write a sequence of the literals and the match.
+	 * 
+	 * @param src
+	 *            the bytes to compress
+	 * @param lit
+	 *            the offset of the literals
+	 * @param litLen
+	 *            the length of the literals
+	 * @param dst
+	 *            the block
+	 * @param op
+	 *            the offset in the block
+	 * @param offset
+	 *            the offset of the match
+	 * @param ml
+	 *            the length of the match, or <code>0</code> for the last
+	 *            literals
+	 * @return the offset in the block after the sequence
+	 */
+	private static int sequence(byte[] src, int lit, int litLen, byte[] dst,
+			int op, int offset, int ml)
+	{
+		int token = op++;
+		int t = Math.min(litLen, 15) << 4;
+		if (litLen >= 15)
+			op = length(dst, op, litLen - 15);
+		System.arraycopy(src, lit, dst, op, litLen);
+		op += litLen;
+		if (ml > 0)
+		{
+			dst[op++] = (byte) offset;
+			dst[op++] = (byte) (offset >>> 8);
+			int m = ml - MIN_MATCH;
+			t |= Math.min(m, 15);
+			if (m >= 15)
+				op = length(dst, op, m - 15);
+		}
+		dst[token] = (byte) t;
+		return op;
+	}
+
+	/**
+	 * Write the extra bytes of a length.
+	 * 
+	 * @param dst
+	 *            the block
+	 * @param op
+	 *            the offset in the block
+	 * @param n
+	 *            the length beyond 15
+	 * @return the offset in the block after the length
+	 */
+	private static int length(byte[] dst, int op, int n)
+	{
+		for (; n >= 255; n -= 255)
+			dst[op++] = (byte) 255;
+		dst[op++] = (byte) n;
+		return op;
+	}
+
+	/**
+	 * Decompress a block.
+	 * 
+	 * @param src
+	 *            the block
+	 * @param off
+	 *            the offset of the block
+	 * @param len
+	 *            the length of the block
+	 * @param length
+	 *            the raw length
+	 * @return the raw bytes
+	 * @throws StreamCorruptedException
+	 *             if the block is malformed
+	 */
+	public static byte[] decompress(byte[] src, int off, int len, int length)
+			throws StreamCorruptedException
+	{
+		byte[] dst = new byte[length];
+		int ip = off, end = off + len, op = 0;
+		try
+		{
+			while (true)
+			{
+				int token = src[ip++] & 0xFF;
+				int litLen = token >>> 4;
+				if (litLen == 15)
+					for (int b = 255; b == 255; litLen += b)
+						b = src[ip++] & 0xFF;
+				if (ip + litLen > end || op + litLen > length)
+					throw new StreamCorruptedException(
+							Messages.getString("Lz4Codec.0")); //$NON-NLS-1$
+				System.arraycopy(src, ip, dst, op, litLen);
+				ip += litLen;
+				op += litLen;
+				if (ip == end)
+					break;
+				int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+				ip += 2;
+				int ml = token & 15;
+				if (ml == 15)
+					for (int b = 255; b == 255; ml += b)
+						b = src[ip++] & 0xFF;
+				ml += MIN_MATCH;
+				int ref = op - offset;
+				if (offset == 0 || ref < 0 || op + ml > length)
+					throw new StreamCorruptedException(
+							Messages.getString("Lz4Codec.0")); //$NON-NLS-1$
+				if (offset >= ml)
+					System.arraycopy(dst, ref, dst, op, ml);
+				else
+					for (int i = 0; i < ml; i++)
+						dst[op + i] = dst[ref + i];
+				op += ml;
+			}
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			throw new StreamCorruptedException(
+					Messages.getString("Lz4Codec.0")); //$NON-NLS-1$
+		}
+		if (op != length)
+			throw new StreamCorruptedException(
+					Messages.getString("Lz4Codec.0")); //$NON-NLS-1$
+		return dst;
+	}
+
+	/**
+	 * Read a little-endian integer.
+	 * 
+	 * @param b
+	 *            the bytes
+	 * @param i
+	 *            the offset
+	 * @return the integer
+	 */
+	private static int readInt(byte[] b, int i)
+	{
+		return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16
+				| (b[i + 3] & 0xFF) << 24;
+	}
+
+	/**
+	 * Returns the hash of a 4-byte sequence.
+	 * 
+	 * @param v
+	 *            the sequence
+	 * @return the hash
+	 */
+	private static int hash(int v)
+	{
+		return (v * -1640531535) >>> (32 - HASH_LOG);
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressAdapters.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The adapters between the 64-bit {@link LongProgressCountable} and the
+ * <code>int</code>-based {@link ProgressCountable} and {@link ProgressControl}.
+ * <p>
+ * A 64-bit progress reported to an <code>int</code>-based one is scaled down
+ * by a power of 2, so that its total fits into <code>int</code>. The steps are
+ * accumulated in 64-bit, only the scaled increments are forwarded, so no step
+ * is lost by the scaling.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class ProgressAdapters
+{
+	private ProgressAdapters()
+	{
+	}
+
+	/**
+	 * Returns a 64-bit progress which reports to the specified
+	 * <code>int</code>-based progress.
+	 * 
+	 * @param progress
+	 *            the <code>int</code>-based progress
+	 * @return the 64-bit progress
+	 */
+	public static LongProgressCountable toLong(final ProgressCountable progress)
+	{
+		return new Scaled()
+		{
+			@Override
+			void start(int total)
+			{
+				progress.progressStart(total);
+			}
+
+			@Override
+			void forward(long steps)
+			{
+				progress.progressUpdate((int) steps);
+			}
+
+			@Override
+			public void progressStop()
+			{
+				progress.progressStop();
+			}
+		};
+	}
+
+	/**
+	 * Returns a 64-bit progress which reports to the specified progress
+	 * control.
+	 * 
+	 * @param control
+	 *            the progress control
+	 * @return the 64-bit progress
+	 */
+	public static LongProgressCountable toLong(final ProgressControl control)
+	{
+		return new Scaled()
+		{
+			@Override
+			void start(int total)
+			{
+				control.setLength(total);
+				control.start();
+			}
+
+			@Override
+			void forward(long steps)
+			{
+				control.update((double) steps);
+			}
+
+			@Override
+			public void progressStop()
+			{
+				control.terminate();
+			}
+		};
+	}
+
+	/**
+	 * Returns an <code>int</code>-based progress which reports to the
+	 * specified 64-bit progress.
+	 * 
+	 * @param progress
+	 *            the 64-bit progress
+	 * @return the <code>int</code>-based progress
+	 */
+	public static ProgressCountable toInt(final LongProgressCountable progress)
+	{
+		return new ProgressCountable()
+		{
+			@Override
+			public void progressStart(int total)
+			{
+				progress.progressStart(total);
+			}
+
+			@Override
+			public void progressUpdate()
+			{
+				progress.progressUpdate();
+			}
+
+			@Override
+			public void progressUpdate(int steps)
+			{
+				progress.progressUpdate(steps);
+			}
+
+			@Override
+			public void progressStop()
+			{
+				progress.progressStop();
+			}
+		};
+	}
+
+	/**
+	 * Returns the shift to scale the specified total into <code>int</code>.
+	 * 
+	 * @param total
+	 *            the 64-bit total
+	 * @return the shift
+	 */
+	static int shift(long total)
+	{
+		int shift = 0;
+		while ((total >> shift) > Integer.MAX_VALUE)
+			shift++;
+		return shift;
+	}
+
+	/**
+	 * The 64-bit progress scaled to an <code>int</code>-based one.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private static abstract class Scaled implements LongProgressCountable
+	{
+		/**
+		 * The steps done.
+		 */
+		private final AtomicLong	done		= new AtomicLong();
+		/**
+		 * The scaled steps forwarded.
+		 */
+		private final AtomicLong	forwarded	= new AtomicLong();
+		/**
+		 * The shift of the scaling.
+		 */
+		private volatile int		shift;
+
+		/**
+		 * Start the <code>int</code>-based progress.
+		 * 
+		 * @param total
+		 *            the scaled total
+		 */
+		abstract void start(int total);
+
+		/**
+		 * Forward the scaled steps.
+		 * 
+		 * @param steps
+		 *            the scaled steps
+		 */
+		abstract void forward(long steps);
+
+		@Override
+		public void progressStart(long total)
+		{
+			shift = shift(total);
+			done.set(0);
+			forwarded.set(0);
+			start((int) (total >> shift));
+		}
+
+		@Override
+		public void progressUpdate()
+		{
+			progressUpdate(1);
+		}
+
+		@Override
+		public void progressUpdate(long steps)
+		{
+			int shift = this.shift;
+			long now = done.addAndGet(steps) >> shift;
+			long before = forwarded.get();
+			// forward the increment of the scaled steps only once
+			while (now > before && !forwarded.compareAndSet(before, now))
+				before = forwarded.get();
+			if (now > before)
+				forward(now - before);
+		}
+	}
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressCounter.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The lock-free progress counter.
+ * <p>
+ * The <tt>ProgressCounter</tt> implements {@link ProgressControl},
+ * {@link ProgressCountable} and {@link LongProgressCountable}, and can be
+ * updated by many worker threads at the same time. Each thread accumulates
+ * its steps into one of a fixed set of stripes chosen by its thread id, each
+ * on its own cache line, so the updates neither block nor allocate, and
+ * rarely contend. The memory is bounded however many threads come and go,
+ * such as the workers retired and respawned by a pool. The stripes are
+ * merged only when the progress is read, typically by a UI timer.
+ * </p>
+ * <p>
+ * The steps are kept in 64-bit fixed-point with {@value #FRACTION_BITS}
+ * fraction bits, so that {@link #update(double)} can count partial steps, and
+ * up to {@link #MAX_STEPS} (<tt>2<sup>47</sup> - 1</tt>) steps can be
+ * counted. Larger updates are saturated rather than wrapped around.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class ProgressCounter implements ProgressControl, ProgressCountable,
+		LongProgressCountable
+{
+	/**
+	 * The fraction bits of the fixed-point steps.
+	 */
+	public static final int							FRACTION_BITS	= 16;
+	/**
+	 * The maximum amount of the steps of an update, larger amounts are
+	 * saturated to it.
+	 */
+	public static final long							MAX_STEPS		= Long.MAX_VALUE >> FRACTION_BITS;
+	/**
+	 * The fixed-point value of one step.
+	 */
+	private static final long							ONE				= 1L << FRACTION_BITS;
+	/**
+	 * The amount of the slots padding a stripe to its own cache line.
+	 */
+	private static final int							PAD				= 8;
+	/**
+	 * The amount of the stripes, a power of two at least twice the amount of
+	 * the processors.
+	 */
+	private static final int							STRIPES			= Integer.highestOneBit(Runtime
+																			.getRuntime()
+																			.availableProcessors() * 2 - 1) << 1;
+	/**
+	 * The stripes, one in every {@link #PAD} slots.
+	 */
+	private final AtomicLongArray						cells			= new AtomicLongArray(
+																			STRIPES * PAD);
+	/**
+	 * The sum of the stripes when the progress started.
+	 */
+	private volatile long								base;
+	/**
+	 * The journey length.
+	 */
+	private volatile long								length;
+	/**
+	 * The content of the current running task.
+	 */
+	private volatile String								content;
+	/**
+	 * The flag whether the progress is running.
+	 */
+	private volatile boolean							running;
+	/**
+	 * The cancellation token of the current run.
+	 */
+	private volatile CancellationToken					token			= new CancellationToken();
+
+	/**
+	 * @see com.frank.swing.ProgressControl#start()
+	 */
+	@Override
+	public void start()
+	{
+		base = sum();
+		if (token.isCancelled())
+			token = new CancellationToken();
+		running = true;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#terminate()
+	 */
+	@Override
+	public void terminate()
+	{
+		running = false;
+		token.cancel();
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#setLength(int)
+	 */
+	@Override
+	public void setLength(int length)
+	{
+		this.length = length;
+	}
+
+	/**
+	 * Set the journey length of this progress.
+	 * 
+	 * @param length
+	 *            the journey length
+	 */
+	public void setLength(long length)
+	{
+		this.length = length;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update()
+	 */
+	@Override
+	public void update()
+	{
+		add(ONE);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(java.lang.String)
+	 */
+	@Override
+	public void update(String content)
+	{
+		this.content = content;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(double)
+	 */
+	@Override
+	public void update(double step)
+	{
+		add((long) (step * ONE + 0.5));
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressCountable#progressStart(int)
+	 */
+	@Override
+	public void progressStart(int total)
+	{
+		setLength(total);
+		start();
+	}
+
+	/**
+	 * @see com.frank.swing.LongProgressCountable#progressStart(long)
+	 */
+	@Override
+	public void progressStart(long total)
+	{
+		setLength(total);
+		start();
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressCountable#progressUpdate()
+	 */
+	@Override
+	public void progressUpdate()
+	{
+		add(ONE);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressCountable#progressUpdate(int)
+	 */
+	@Override
+	public void progressUpdate(int steps)
+	{
+		add(steps * ONE);
+	}
+
+	/**
+	 * @see com.frank.swing.LongProgressCountable#progressUpdate(long)
+	 */
+	@Override
+	public void progressUpdate(long steps)
+	{
+		add(Math.max(-MAX_STEPS, Math.min(MAX_STEPS, steps)) * ONE);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressCountable#progressStop()
+	 */
+	@Override
+	public void progressStop()
+	{
+		terminate();
+	}
+
+	/**
+	 * Add the fixed-point steps to the stripe of the current thread.
+	 * 
+	 * @param steps
+	 *            the fixed-point steps
+	 */
+	private void add(long steps)
+	{
+		int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+		cells.getAndAdd((h >>> 16 & STRIPES - 1) * PAD, steps);
+	}
+
+	/**
+	 * Returns the sum of all the stripes.
+	 * 
+	 * @return the fixed-point sum
+	 */
+	private long sum()
+	{
+		long sum = 0;
+		for (int i = 0; i < STRIPES * PAD; i += PAD)
+			sum += cells.get(i);
+		return sum;
+	}
+
+	/**
+	 * Returns the steps counted so far.
+	 * 
+	 * @return the counted steps
+	 */
+	public double getCount()
+	{
+		return (double) (sum() - base) / ONE;
+	}
+
+	/**
+	 * Returns the journey length.
+	 * 
+	 * @return the journey length
+	 */
+	public long getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * Returns the fraction of the progress done.
+	 * 
+	 * @return the fraction in <tt>[0, 1]</tt>, or <code>0</code> if the
+	 *         length is not set
+	 */
+	public double getFraction()
+	{
+		long length = this.length;
+		if (length <= 0)
+			return 0;
+		return Math.min(1, getCount() / length);
+	}
+
+	/**
+	 * Returns the content of the current running task.
+	 * 
+	 * @return the task content, or <code>null</code> if not set
+	 */
+	public String getContent()
+	{
+		return content;
+	}
+
+	/**
+	 * Returns <code>true</code> if the progress is running.
+	 * 
+	 * @return <code>true</code> if running
+	 */
+	public boolean isRunning()
+	{
+		return running;
+	}
+
+	/**
+	 * Returns the cancellation token of the current run, which is cancelled by
+	 * {@link #terminate()}. The workers should poll it instead of
+	 * {@link #isRunning()} so that they also stop before the progress starts.
+	 * 
+	 * @return the cancellation token
+	 */
+	public CancellationToken getToken()
+	{
+		return token;
+	}
+}
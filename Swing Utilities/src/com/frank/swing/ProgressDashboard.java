@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressDashboard.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JComponent;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListCellRenderer;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+
+/**
+ * The dashboard of many progresses.
+ * <p>
+ * The <tt>ProgressDashboard</tt> renders any number of tasks in one list
+ * instead of a progress dialog per task. Each task is counted by a
+ * {@link ProgressCounter}, which the workers update without touching the user
+ * interface. A timer polls the visible rows at a capped frame rate, compares
+ * their state with the state last rendered, and repaints only the bounds of
+ * the rows changed, the rows out of the view are never polled nor painted.
+ * The rows have a fixed height, and are painted by a light-weight renderer, so
+ * that the cost of a frame depends only on the rows changed in view.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class ProgressDashboard extends JPanel
+{
+	/**
+	 * serialVersionUID.
+	 */
+	private static final long		serialVersionUID	= -1781392705713617062L;
+	/**
+	 * The resolution of the rendered fraction.
+	 */
+	public static final int			RESOLUTION			= 1000;
+	/**
+	 * The tasks.
+	 */
+	protected final List<Task>		tasks				= new ArrayList();
+	/**
+	 * The list model of the tasks.
+	 */
+	protected final TaskModel		model				= new TaskModel();
+	/**
+	 * The list of the tasks.
+	 */
+	protected final JList<Task>		list;
+	/**
+	 * The timer to poll the tasks.
+	 */
+	protected final Timer			timer;
+
+	/**
+	 * Construct an instance of <tt>ProgressDashboard</tt> which repaints at
+	 * most 60 frames per second.
+	 */
+	public ProgressDashboard()
+	{
+		this(60);
+	}
+
+	/**
+	 * Construct an instance of <tt>ProgressDashboard</tt>.
+	 * 
+	 * @param fps
+	 *            the maximum frames to repaint per second
+	 */
+	public ProgressDashboard(int fps)
+	{
+		super(new BorderLayout());
+		if (fps <= 0)
+			throw new IllegalArgumentException(
+					Messages.getString("ProgressDashboard.0")); //$NON-NLS-1$
+		list = new JList(model);
+		list.setCellRenderer(new TaskRenderer());
+		FontMetrics fm = list.getFontMetrics(list.getFont());
+		// fixed cells so that the list never calls the renderer to measure
+		list.setFixedCellWidth(fm.charWidth('n') * 40);
+		list.setFixedCellHeight(fm.getHeight() + 6);
+		add(new JScrollPane(list), BorderLayout.CENTER);
+		timer = new Timer(1000 / fps, new ActionListener()
+		{
+			public void actionPerformed(ActionEvent e)
+			{
+				poll();
+			}
+		});
+		timer.setCoalesce(true);
+	}
+
+	/**
+	 * Add a task to the dashboard. This method should be called in the event
+	 * dispatch thread.
+	 * 
+	 * @param name
+	 *            the name of the task
+	 * @return the progress counter of the task
+	 */
+	public ProgressCounter addTask(String name)
+	{
+		ProgressCounter counter = new ProgressCounter();
+		addTask(name, counter);
+		return counter;
+	}
+
+	/**
+	 * Add a task counted by the specified progress counter to the dashboard.
+	 * This method should be called in the event dispatch thread.
+	 * 
+	 * @param name
+	 *            the name of the task
+	 * @param counter
+	 *            the progress counter of the task
+	 */
+	public void addTask(String name, ProgressCounter counter)
+	{
+		tasks.add(new Task(name, counter));
+		model.fireAdded(tasks.size() - 1);
+	}
+
+	/**
+	 * Remove the task counted by the specified progress counter. This method
+	 * should be called in the event dispatch thread.
+	 * 
+	 * @param counter
+	 *            the progress counter of the task
+	 * @return <code>true</code> if the task is removed
+	 */
+	public boolean removeTask(ProgressCounter counter)
+	{
+		for (int i = 0; i < tasks.size(); i++)
+			if (tasks.get(i).counter == counter)
+			{
+				tasks.remove(i);
+				model.fireRemoved(i, i);
+				return true;
+			}
+		return false;
+	}
+
+	/**
+	 * Remove all the terminated tasks. This method should be called in the
+	 * event dispatch thread.
+	 * 
+	 * @return the amount of the tasks removed
+	 */
+	public int removeTerminated()
+	{
+		int removed = 0;
+		for (int i = tasks.size() - 1; i >= 0; i--)
+			if (!tasks.get(i).counter.isRunning())
+			{
+				tasks.remove(i);
+				model.fireRemoved(i, i);
+				removed++;
+			}
+		return removed;
+	}
+
+	/**
+	 * Returns the amount of the tasks.
+	 * 
+	 * @return the amount of the tasks
+	 */
+	public int getTaskCount()
+	{
+		return tasks.size();
+	}
+
+	/**
+	 * Returns the list of the tasks.
+	 * 
+	 * @return the list
+	 */
+	public JList<Task> getList()
+	{
+		return list;
+	}
+
+	/**
+	 * @see javax.swing.JComponent#addNotify()
+	 */
+	@Override
+	public void addNotify()
+	{
+		super.addNotify();
+		timer.start();
+	}
+
+	/**
+	 * @see javax.swing.JComponent#removeNotify()
+	 */
+	@Override
+	public void removeNotify()
+	{
+		timer.stop();
+		super.removeNotify();
+	}
+
+	/**
+	 * Poll the visible tasks and repaint the rows changed since they were
+	 * polled. This method is called in the event dispatch thread once per
+	 * frame.
+	 */
+	protected void poll()
+	{
+		int first = list.getFirstVisibleIndex();
+		int last = list.getLastVisibleIndex();
+		if (first < 0)
+			return;
+		for (int i = first; i <= last; i++)
+		{
+			Task task = tasks.get(i);
+			if (task.isDirty())
+			{
+				task.render();
+				Rectangle r = list.getCellBounds(i, i);
+				if (r != null)
+					list.repaint(r);
+			}
+		}
+	}
+
+	/**
+	 * The task shown in the dashboard.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	public static class Task
+	{
+		/**
+		 * The name of the task.
+		 */
+		protected final String			name;
+		/**
+		 * The progress counter of the task.
+		 */
+		protected final ProgressCounter	counter;
+		/**
+		 * The rendered fraction, or <code>-1</code> if indeterminate.
+		 */
+		private int						value		= -2;
+		/**
+		 * The rendered content.
+		 */
+		private String					content;
+		/**
+		 * The rendered running state.
+		 */
+		private boolean					running;
+
+		/**
+		 * Construct an instance of <tt>Task</tt>.
+		 * 
+		 * @param name
+		 *            the name of the task
+		 * @param counter
+		 *            the progress counter of the task
+		 */
+		public Task(String name, ProgressCounter counter)
+		{
+			this.name = name;
+			this.counter = counter;
+		}
+
+		/**
+		 * Returns the current fraction in {@link ProgressDashboard#RESOLUTION}
+		 * units, or <code>-1</code> if the length is unknown.
+		 * 
+		 * @return the current fraction
+		 */
+		private int value()
+		{
+			return counter.getLength() <= 0 ? -1 : (int) (counter
+					.getFraction() * RESOLUTION);
+		}
+
+		/**
+		 * Returns <code>true</code> if the task is changed since it was
+		 * rendered.
+		 * 
+		 * @return <code>true</code> if changed
+		 */
+		boolean isDirty()
+		{
+			String s = counter.getContent();
+			return value != value() || running != counter.isRunning()
+					|| s != content && (s == null || !s.equals(content));
+		}
+
+		/**
+		 * Record the current state as rendered, when its row is scheduled to
+		 * repaint.
+		 */
+		void render()
+		{
+			value = value();
+			content = counter.getContent();
+			running = counter.isRunning();
+		}
+
+		/**
+		 * Returns the name of the task.
+		 * 
+		 * @return the task name
+		 */
+		public String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * Returns the progress counter of the task.
+		 * 
+		 * @return the progress counter
+		 */
+		public ProgressCounter getCounter()
+		{
+			return counter;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			return name;
+		}
+	}
+
+	/**
+	 * The list model of the tasks.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	protected class TaskModel extends AbstractListModel<Task>
+	{
+		/**
+		 * serialVersionUID.
+		 */
+		private static final long	serialVersionUID	= 6062735512180339440L;
+
+		/**
+		 * @see javax.swing.ListModel#getSize()
+		 */
+		@Override
+		public int getSize()
+		{
+			return tasks.size();
+		}
+
+		/**
+		 * @see javax.swing.ListModel#getElementAt(int)
+		 */
+		@Override
+		public Task getElementAt(int index)
+		{
+			return tasks.get(index);
+		}
+
+		/**
+		 * Notify the task added.
+		 * 
+		 * @param index
+		 *            the index of the task
+		 */
+		void fireAdded(int index)
+		{
+			fireIntervalAdded(this, index, index);
+		}
+
+		/**
+		 * Notify the tasks removed.
+		 * 
+		 * @param from
+		 *            the first index
+		 * @param to
+		 *            the last index
+		 */
+		void fireRemoved(int from, int to)
+		{
+			fireIntervalRemoved(this, from, to);
+		}
+	}
+
+	/**
+	 * The renderer of the tasks, which paints the fraction as a bar behind the
+	 * text.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	protected static class TaskRenderer extends JComponent implements
+			ListCellRenderer<Task>
+	{
+		/**
+		 * serialVersionUID.
+		 */
+		private static final long	serialVersionUID	= -4183036395361102781L;
+		/**
+		 * The text of the task.
+		 */
+		private String				text;
+		/**
+		 * The percentage of the task.
+		 */
+		private String				percent;
+		/**
+		 * The fraction of the task, or <code>-1</code> if indeterminate.
+		 */
+		private int					value;
+		/**
+		 * The color of the bar.
+		 */
+		private Color				barColor;
+
+		/**
+		 * @see javax.swing.ListCellRenderer#getListCellRendererComponent(javax.swing.JList,
+		 *      java.lang.Object, int, boolean, boolean)
+		 */
+		@Override
+		public Component getListCellRendererComponent(
+				JList<? extends Task> list, Task task, int index,
+				boolean isSelected, boolean cellHasFocus)
+		{
+			value = task.value();
+			String content = task.counter.getContent();
+			text = content == null ? task.name : String.format(
+					Messages.getString("ProgressDashboard.1"), task.name, //$NON-NLS-1$
+					content);
+			percent = value < 0 ? null : value * 100 / RESOLUTION + "%"; //$NON-NLS-1$
+			setFont(list.getFont());
+			setBackground(isSelected ? list.getSelectionBackground() : list
+					.getBackground());
+			setForeground(isSelected ? list.getSelectionForeground() : list
+					.getForeground());
+			Color c = UIManager.getColor("ProgressBar.foreground"); //$NON-NLS-1$
+			if (c == null)
+				c = list.getSelectionBackground();
+			barColor = task.counter.isRunning() ? c : c.darker();
+			return this;
+		}
+
+		/**
+		 * @see javax.swing.JComponent#paintComponent(java.awt.Graphics)
+		 */
+		@Override
+		protected void paintComponent(Graphics g)
+		{
+			int w = getWidth(), h = getHeight();
+			g.setColor(getBackground());
+			g.fillRect(0, 0, w, h);
+			if (value > 0)
+			{
+				g.setColor(barColor);
+				g.fillRect(0, h - 3, (int) ((long) w * value / RESOLUTION), 3);
+			}
+			FontMetrics fm = g.getFontMetrics(getFont());
+			int y = (h - 3 - fm.getHeight()) / 2 + fm.getAscent();
+			int right = w - 4;
+			g.setColor(getForeground());
+			if (percent != null)
+			{
+				right -= fm.stringWidth(percent);
+				g.drawString(percent, right, y);
+				right -= 8;
+			}
+			g.clipRect(0, 0, Math.max(0, right), h);
+			g.drawString(text, 4, y);
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressEstimator.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+/**
+ * The throughput and remaining time estimator of a progress.
+ * <p>
+ * The estimator is fed with the count of steps done by {@link #sample(double,
+ * long)}, typically once per frame by a progress publisher. It maintains:
+ * <ul>
+ * <li>an exponentially weighted throughput, in which a sample deviating from
+ * the current throughput more than the outlier factor is clamped;</li>
+ * <li>the throughput over a sliding window of the latest samples, kept in a
+ * ring buffer, from which the remaining time is estimated;</li>
+ * <li>the stall state, when no progress is made for the stall timeout.</li>
+ * </ul>
+ * Each sample costs constant time and no allocation. The estimator is not
+ * thread-safe, it should be sampled by a single thread.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class ProgressEstimator
+{
+	/**
+	 * The sample times of the window in nanoseconds.
+	 */
+	private final long[]	times;
+	/**
+	 * The sample counts of the window.
+	 */
+	private final double[]	counts;
+	/**
+	 * The index of the oldest sample in the window.
+	 */
+	private int				head;
+	/**
+	 * The amount of samples in the window.
+	 */
+	private int				size;
+	/**
+	 * The smoothing factor of the weighted throughput.
+	 */
+	private double			alpha			= 0.2;
+	/**
+	 * The maximum ratio of a sample throughput to the weighted throughput.
+	 */
+	private double			outlierFactor	= 4;
+	/**
+	 * The stall timeout in nanoseconds.
+	 */
+	private long			stallTimeout	= 5000000000L;
+	/**
+	 * The weighted throughput in steps per second.
+	 */
+	private double			rate;
+	/**
+	 * The time of the last sample which made progress.
+	 */
+	private long			progressTime;
+
+	/**
+	 * Construct an instance of <tt>ProgressEstimator</tt> with a window of 64
+	 * samples.
+	 */
+	public ProgressEstimator()
+	{
+		this(64);
+	}
+
+	/**
+	 * Construct an instance of <tt>ProgressEstimator</tt>.
+	 * 
+	 * @param window
+	 *            the amount of samples in the sliding window, at least 2
+	 */
+	public ProgressEstimator(int window)
+	{
+		if (window < 2)
+			throw new IllegalArgumentException(
+					Messages.getString("ProgressEstimator.0")); //$NON-NLS-1$
+		times = new long[window];
+		counts = new double[window];
+	}
+
+	/**
+	 * Clear all the samples.
+	 */
+	public void reset()
+	{
+		head = size = 0;
+		rate = 0;
+		progressTime = 0;
+	}
+
+	/**
+	 * Feed a sample of the progress.
+	 * 
+	 * @param count
+	 *            the count of steps done so far
+	 * @param now
+	 *            the sample time by {@link System#nanoTime()}
+	 */
+	public void sample(double count, long now)
+	{
+		int n = times.length;
+		if (size > 0)
+		{
+			int last = (head + size - 1) % n;
+			long dt = now - times[last];
+			if (dt <= 0)
+				return;
+			double dc = count - counts[last];
+			if (dc > 0)
+				progressTime = now;
+			double r = dc * 1e9 / dt;
+			if (rate > 0)
+				r = Math.max(rate / outlierFactor,
+						Math.min(rate * outlierFactor, r));
+			rate = rate == 0 ? r : rate + alpha * (r - rate);
+		}
+		else
+			progressTime = now;
+		if (size == n)
+			head = (head + 1) % n;
+		else
+			size++;
+		int i = (head + size - 1) % n;
+		times[i] = now;
+		counts[i] = count;
+	}
+
+	/**
+	 * Returns the exponentially weighted throughput.
+	 * 
+	 * @return the throughput in steps per second
+	 */
+	public double getThroughput()
+	{
+		return rate;
+	}
+
+	/**
+	 * Returns the throughput over the sliding window.
+	 * 
+	 * @return the throughput in steps per second, or <code>0</code> if there
+	 *         are less than 2 samples
+	 */
+	public double getWindowThroughput()
+	{
+		if (size < 2)
+			return 0;
+		int last = (head + size - 1) % times.length;
+		long dt = times[last] - times[head];
+		return dt <= 0 ? 0 : (counts[last] - counts[head]) * 1e9 / dt;
+	}
+
+	/**
+	 * Returns the estimated remaining time.
+	 * 
+	 * @param length
+	 *            the journey length of the progress
+	 * @return the remaining time in nanoseconds, or <code>-1</code> if unknown
+	 */
+	public long getRemainingTime(double length)
+	{
+		double r = getWindowThroughput();
+		if (r <= 0 || size == 0)
+			return -1;
+		double left = length - counts[(head + size - 1) % times.length];
+		return left <= 0 ? 0 : (long) (left / r * 1e9);
+	}
+
+	/**
+	 * Returns <code>true</code> if no progress is made for the stall timeout.
+	 * 
+	 * @param now
+	 *            the current time by {@link System#nanoTime()}
+	 * @return <code>true</code> if stalled
+	 */
+	public boolean isStalled(long now)
+	{
+		return size > 0 && now - progressTime > stallTimeout;
+	}
+
+	/**
+	 * Set the smoothing factor of the weighted throughput.
+	 * 
+	 * @param alpha
+	 *            the smoothing factor in <tt>(0, 1]</tt>, the larger the more
+	 *            responsive
+	 */
+	public void setSmoothing(double alpha)
+	{
+		this.alpha = alpha;
+	}
+
+	/**
+	 * Set the maximum ratio of a sample throughput to the weighted
+	 * throughput, the sample beyond which is clamped as an outlier.
+	 * 
+	 * @param factor
+	 *            the outlier factor, greater than 1
+	 */
+	public void setOutlierFactor(double factor)
+	{
+		outlierFactor = factor;
+	}
+
+	/**
+	 * Set the stall timeout.
+	 * 
+	 * @param millis
+	 *            the timeout in milliseconds
+	 */
+	public void setStallTimeout(long millis)
+	{
+		stallTimeout = millis * 1000000L;
+	}
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressExecutor.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingWorker;
+
+/**
+ * The parallel executor of a batch job with progress.
+ * <p>
+ * The <tt>ProgressExecutor</tt> processes a collection of work items by a
+ * {@link Task} on a work-stealing {@link ForkJoinPool}. The items are split
+ * into batches, the progress is reported to a {@link ProgressCountable} item
+ * by item, and the results are published to the event dispatch thread, where
+ * they are delivered to the {@link ResultHandler} in chunks coalesced by
+ * {@link SwingWorker}. The result of {@link #get()} is the list of the results
+ * in the order of the items.
+ * </p>
+ * <p>
+ * The executor is also a {@link ProgressControl}: {@link #start()} executes
+ * it, and {@link #terminate()} cancels its {@link CancellationToken}, every
+ * worker polls the token before each item, so all of them stop after the item
+ * in process. The results published but not yet handled in the event dispatch
+ * thread are signalled to the token as the backpressure, and the tasks may
+ * read it by {@link #getToken()} to adapt their work. The update methods are
+ * ignored, since the progress is counted by the items. If a task fails, the
+ * other workers are stopped and the failure is thrown by {@link #get()}.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @param <T>
+ *            the type of work item
+ * @param <R>
+ *            the type of result
+ * @version 1.0.0
+ */
+public class ProgressExecutor<T, R> extends SwingWorker<List<R>, R> implements
+		ProgressControl
+{
+	/**
+	 * The work items.
+	 */
+	protected final Object[]					items;
+	/**
+	 * The task to process an item.
+	 */
+	protected final Task<? super T, ? extends R>	task;
+	/**
+	 * The progress to report to, or <code>null</code>.
+	 */
+	protected final ProgressCountable			progress;
+	/**
+	 * The handler of the partial results, or <code>null</code>.
+	 */
+	protected ResultHandler<R>					handler;
+	/**
+	 * The pool to process the items.
+	 */
+	protected ForkJoinPool						pool;
+	/**
+	 * The maximum amount of items processed in one batch.
+	 */
+	protected int								batchSize	= 16;
+	/**
+	 * The amount of results which overwhelms the event dispatch thread.
+	 */
+	protected int								backlog		= 1024;
+	/**
+	 * The cancellation token of the job.
+	 */
+	private volatile CancellationToken			token		= new CancellationToken();
+	/**
+	 * The amount of results published but not yet handled.
+	 */
+	private final AtomicInteger					pending		= new AtomicInteger();
+	/**
+	 * The first failure of the tasks.
+	 */
+	private final AtomicReference<Exception>	failure		= new AtomicReference();
+
+	/**
+	 * Construct an instance of <tt>ProgressExecutor</tt>.
+	 * 
+	 * @param items
+	 *            the work items
+	 * @param task
+	 *            the task to process an item
+	 * @param progress
+	 *            the progress to report to, or <code>null</code>
+	 */
+	public ProgressExecutor(Collection<? extends T> items,
+			Task<? super T, ? extends R> task, ProgressCountable progress)
+	{
+		this.items = items.toArray();
+		this.task = task;
+		this.progress = progress;
+	}
+
+	/**
+	 * Set the handler of the partial results, which is called in the event
+	 * dispatch thread.
+	 * 
+	 * @param handler
+	 *            the result handler
+	 */
+	public void setResultHandler(ResultHandler<R> handler)
+	{
+		this.handler = handler;
+	}
+
+	/**
+	 * Set the pool to process the items, the
+	 * {@link SwingUtils#getSharedPool() shared pool} is used by default.
+	 * 
+	 * @param pool
+	 *            the fork/join pool
+	 */
+	public void setPool(ForkJoinPool pool)
+	{
+		this.pool = pool;
+	}
+
+	/**
+	 * Set the maximum amount of items processed in one batch.
+	 * 
+	 * @param batchSize
+	 *            the batch size
+	 */
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	/**
+	 * Set the amount of results published but not yet handled, which signals
+	 * full backpressure to the cancellation token.
+	 * 
+	 * @param backlog
+	 *            the amount of pending results
+	 */
+	public void setBacklog(int backlog)
+	{
+		this.backlog = Math.max(1, backlog);
+	}
+
+	/**
+	 * Set the cancellation token of the job, so that several jobs can be
+	 * cancelled together. This method should be called before the job starts.
+	 * 
+	 * @param token
+	 *            the cancellation token
+	 */
+	public void setToken(CancellationToken token)
+	{
+		this.token = token;
+	}
+
+	/**
+	 * Returns the cancellation token of the job.
+	 * 
+	 * @return the cancellation token
+	 */
+	public CancellationToken getToken()
+	{
+		return token;
+	}
+
+	/**
+	 * @see javax.swing.SwingWorker#doInBackground()
+	 */
+	@Override
+	protected List<R> doInBackground() throws Exception
+	{
+		ForkJoinPool pool = this.pool == null ? SwingUtils.getSharedPool()
+				: this.pool;
+		Object[] results = new Object[items.length];
+		if (progress != null)
+			progress.progressStart(items.length);
+		try
+		{
+			pool.invoke(new Batch(results, 0, items.length));
+		}
+		finally
+		{
+			if (progress != null)
+				progress.progressStop();
+		}
+		Exception e = failure.get();
+		if (e != null)
+			throw e;
+		return (List<R>) Arrays.asList(results);
+	}
+
+	/**
+	 * @see javax.swing.SwingWorker#process(java.util.List)
+	 */
+	@Override
+	protected void process(List<R> chunks)
+	{
+		int n = pending.addAndGet(-chunks.size());
+		token.setPressure(n / (double) backlog);
+		if (handler != null && !token.isCancelled())
+			handler.handle(chunks);
+	}
+
+	/**
+	 * Returns <code>true</code> if the job is cancelled or failed.
+	 * 
+	 * @return <code>true</code> if the workers should stop
+	 */
+	protected boolean isStopped()
+	{
+		return token.isCancelled();
+	}
+
+	/**
+	 * Execute the job.
+	 * 
+	 * @see com.frank.swing.ProgressControl#start()
+	 */
+	@Override
+	public void start()
+	{
+		execute();
+	}
+
+	/**
+	 * Cancel the job.
+	 * 
+	 * @see com.frank.swing.ProgressControl#terminate()
+	 */
+	@Override
+	public void terminate()
+	{
+		token.cancel();
+		cancel(false);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#setLength(int)
+	 */
+	@Override
+	public void setLength(int length)
+	{
+		// counted by the items
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update()
+	 */
+	@Override
+	public void update()
+	{
+		// counted by the items
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(java.lang.String)
+	 */
+	@Override
+	public void update(String content)
+	{
+		// counted by the items
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(double)
+	 */
+	@Override
+	public void update(double step)
+	{
+		// counted by the items
+	}
+
+	/**
+	 * The batch of items processed by a fork/join task.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private class Batch extends RecursiveAction
+	{
+		/**
+		 * serialVersionUID.
+		 */
+		private static final long	serialVersionUID	= 4017402331745338318L;
+		/**
+		 * The results of all the items.
+		 */
+		private final Object[]		results;
+		/**
+		 * The first item of the batch.
+		 */
+		private final int			from;
+		/**
+		 * The end of the batch, exclusive.
+		 */
+		private final int			to;
+
+		/**
+		 * Construct an instance of <tt>Batch</tt>.
+		 * 
+		 * @param results
+		 *            the results of all the items
+		 * @param from
+		 *            the first item
+		 * @param to
+		 *            the end, exclusive
+		 */
+		Batch(Object[] results, int from, int to)
+		{
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute()
+		{
+			CancellationToken token = ProgressExecutor.this.token;
+			if (to - from > batchSize)
+			{
+				int mid = (from + to) >>> 1;
+				invokeAll(new Batch(results, from, mid), new Batch(results,
+						mid, to));
+				return;
+			}
+			for (int i = from; i < to && !token.isCancelled(); i++)
+			{
+				R r;
+				try
+				{
+					r = task.process((T) items[i]);
+				}
+				catch (Exception e)
+				{
+					failure.compareAndSet(null, e);
+					token.cancel();
+					return;
+				}
+				results[i] = r;
+				pending.incrementAndGet();
+				publish(r);
+				if (progress != null)
+					progress.progressUpdate();
+			}
+		}
+	}
+
+	/**
+	 * The task to process a work item.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @param <T>
+	 *            the type of work item
+	 * @param <R>
+	 *            the type of result
+	 * @version 1.0.0
+	 */
+	public static interface Task<T, R>
+	{
+		/**
+		 * Process the work item, called in a worker thread.
+		 * 
+		 * @param item
+		 *            the work item
+		 * @return the result
+		 * @throws Exception
+		 *             if the processing failed
+		 */
+		public R process(T item) throws Exception;
+	}
+
+	/**
+	 * The handler of the partial results.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @param <R>
+	 *            the type of result
+	 * @version 1.0.0
+	 */
+	public static interface ResultHandler<R>
+	{
+		/**
+		 * Handle a chunk of results, called in the event dispatch thread.
+		 * 
+		 * @param results
+		 *            the chunk of results in the order of completion
+		 */
+		public void handle(List<R> results);
+	}
+}
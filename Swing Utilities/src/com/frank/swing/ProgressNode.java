@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressNode.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The node of a hierarchical progress.
+ * <p>
+ * A progress is split into weighted sub-tasks by {@link #child(double, int)}:
+ * the child takes the specified steps of its parent as its weight, and has
+ * its own journey length. Each node owns a share of the root in fixed-point
+ * units, which is computed once when the node is created. An update of any
+ * node adds its share of the steps to the single atomic counter of the root,
+ * so the fraction of the root is always up to date without walking the tree,
+ * and the nodes can be updated from different threads, e.g. a child per
+ * forked task of a fork/join computation.
+ * </p>
+ * <p>
+ * When a node terminates, its remaining share is added to the root, so the
+ * rounding of the shares never leaves the root incomplete. The root can
+ * forward its progress to another {@link ProgressControl}, e.g. a
+ * {@link ProgressReporter}, with journey length {@link #RESOLUTION}.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class ProgressNode implements ProgressControl
+{
+	/**
+	 * The fixed-point units of the whole progress.
+	 */
+	private static final long		UNITS		= 1L << 40;
+	/**
+	 * The journey length of the forwarded progress.
+	 */
+	public static final int			RESOLUTION	= 10000;
+	/**
+	 * The root node.
+	 */
+	private final ProgressNode		root;
+	/**
+	 * The units of the root done, valid in the root only.
+	 */
+	private final AtomicLong		done;
+	/**
+	 * The progress to forward to, valid in the root only.
+	 */
+	private final ProgressControl	target;
+	/**
+	 * The units of the root allotted to this node.
+	 */
+	private final long				allotted;
+	/**
+	 * The units consumed by the updates and allotted to the children.
+	 */
+	private final AtomicLong		consumed	= new AtomicLong();
+	/**
+	 * The journey length of this node.
+	 */
+	private volatile int			length;
+	/**
+	 * The content of the current running task.
+	 */
+	private volatile String			content;
+
+	/**
+	 * Construct a root <tt>ProgressNode</tt> with specified journey length.
+	 * 
+	 * @param length
+	 *            the journey length
+	 */
+	public ProgressNode(int length)
+	{
+		this(length, null);
+	}
+
+	/**
+	 * Construct a root <tt>ProgressNode</tt> which forwards its progress to the
+	 * specified progress.
+	 * 
+	 * @param length
+	 *            the journey length
+	 * @param target
+	 *            the progress to forward to, or <code>null</code>
+	 */
+	public ProgressNode(int length, ProgressControl target)
+	{
+		root = this;
+		done = new AtomicLong();
+		this.target = target;
+		allotted = UNITS;
+		this.length = length;
+	}
+
+	/**
+	 * Construct a child <tt>ProgressNode</tt>.
+	 * 
+	 * @param parent
+	 *            the parent node
+	 * @param allotted
+	 *            the units of the root allotted
+	 * @param length
+	 *            the journey length
+	 */
+	private ProgressNode(ProgressNode parent, long allotted, int length)
+	{
+		root = parent.root;
+		done = null;
+		target = null;
+		this.allotted = allotted;
+		this.length = length;
+	}
+
+	/**
+	 * Create a sub-task of this node. The sub-task takes the specified steps of
+	 * this node as its weight, which are consumed from this node at once.
+	 * 
+	 * @param steps
+	 *            the steps of this node taken by the sub-task
+	 * @param length
+	 *            the journey length of the sub-task
+	 * @return the node of the sub-task
+	 */
+	public ProgressNode child(double steps, int length)
+	{
+		long units = reserve(units(steps));
+		return new ProgressNode(this, units, length);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#start()
+	 */
+	@Override
+	public void start()
+	{
+		if (this == root && target != null)
+		{
+			target.setLength(RESOLUTION);
+			target.start();
+		}
+	}
+
+	/**
+	 * Complete this node, its remaining share is added to the root.
+	 * 
+	 * @see com.frank.swing.ProgressControl#terminate()
+	 */
+	@Override
+	public void terminate()
+	{
+		long before = consumed.getAndSet(allotted);
+		if (before < allotted)
+			root.add(allotted - before);
+		if (this == root && target != null)
+			target.terminate();
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#setLength(int)
+	 */
+	@Override
+	public void setLength(int length)
+	{
+		this.length = length;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update()
+	 */
+	@Override
+	public void update()
+	{
+		update(1);
+	}
+
+	/**
+	 * The content is also set to the root.
+	 * 
+	 * @see com.frank.swing.ProgressControl#update(java.lang.String)
+	 */
+	@Override
+	public void update(String content)
+	{
+		this.content = content;
+		if (this != root)
+			root.content = content;
+		if (root.target != null)
+			root.target.update(content);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(double)
+	 */
+	@Override
+	public void update(double step)
+	{
+		long units = reserve(units(step));
+		if (units > 0)
+			root.add(units);
+	}
+
+	/**
+	 * Returns the fraction of the whole progress done.
+	 * 
+	 * @return the fraction of the root in <tt>[0, 1]</tt>
+	 */
+	public double getFraction()
+	{
+		return (double) root.done.get() / UNITS;
+	}
+
+	/**
+	 * Returns the fraction of this node done, including the shares allotted to
+	 * its children.
+	 * 
+	 * @return the fraction of this node in <tt>[0, 1]</tt>
+	 */
+	public double getLocalFraction()
+	{
+		return allotted == 0 ? 1 : Math.min(1, (double) consumed.get()
+				/ allotted);
+	}
+
+	/**
+	 * Returns the content of the current running task.
+	 * 
+	 * @return the task content, or <code>null</code> if not set
+	 */
+	public String getContent()
+	{
+		return content;
+	}
+
+	/**
+	 * Returns the journey length of this node.
+	 * 
+	 * @return the journey length
+	 */
+	public int getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * Returns the root node.
+	 * 
+	 * @return the root node
+	 */
+	public ProgressNode getRoot()
+	{
+		return root;
+	}
+
+	/**
+	 * Convert the steps of this node to the units of the root.
+	 * 
+	 * @param steps
+	 *            the steps
+	 * @return the units
+	 */
+	private long units(double steps)
+	{
+		int length = this.length;
+		if (length <= 0 || steps <= 0)
+			return 0;
+		return (long) (steps / length * allotted);
+	}
+
+	/**
+	 * Consume the specified units from the share of this node.
+	 * 
+	 * @param units
+	 *            the units requested
+	 * @return the units actually consumed, not more than the remaining share
+	 */
+	private long reserve(long units)
+	{
+		long before = consumed.getAndAdd(units);
+		long room = allotted - before;
+		return room <= 0 ? 0 : Math.min(units, room);
+	}
+
+	/**
+	 * Add the units done to the root, called on the root only.
+	 * 
+	 * @param units
+	 *            the units done
+	 */
+	private void add(long units)
+	{
+		done.addAndGet(units);
+		if (target != null)
+			target.update((double) units * RESOLUTION / UNITS);
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressReporter.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * The progress reporter which publishes a {@link ProgressCounter} to a
+ * {@link JProgressBar} at a fixed frame rate.
+ * <p>
+ * The worker threads only update the lock-free counter, they never touch the
+ * progress bar or post events to the event dispatch thread. A Swing timer
+ * reads the counter once per frame while the progress is running, and updates
+ * the progress bar only if the displayed value changes. After the progress is
+ * terminated, the final state is published in the next frame.
+ * </p>
+ * <p>
+ * Each frame also feeds a {@link ProgressEstimator}, whose throughput and
+ * remaining time can be read by {@link #getEstimator()} or shown in the string
+ * of the progress bar. The lateness of the frames is signalled to the
+ * {@link #getToken() cancellation token} as the backpressure.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class ProgressReporter extends ProgressCounter
+{
+	/**
+	 * The resolution of the progress bar.
+	 */
+	public static final int				RESOLUTION			= 10000;
+	/**
+	 * The progress bar to publish to.
+	 */
+	protected JProgressBar				bar;
+	/**
+	 * The timer to publish the progress.
+	 */
+	protected Timer						timer;
+	/**
+	 * The last published value.
+	 */
+	private int							value				= -1;
+	/**
+	 * The last published content.
+	 */
+	private String						string;
+	/**
+	 * The estimator of the throughput and remaining time.
+	 */
+	protected final ProgressEstimator	estimator			= new ProgressEstimator();
+	/**
+	 * The flag whether the estimation is shown in the progress bar.
+	 */
+	private boolean						estimationShown;
+	/**
+	 * The time of the last frame.
+	 */
+	private long						frameTime;
+
+	/**
+	 * Construct an instance of <tt>ProgressReporter</tt> which publishes 30
+	 * frames per second.
+	 * 
+	 * @param bar
+	 *            the progress bar to publish to
+	 */
+	public ProgressReporter(JProgressBar bar)
+	{
+		this(bar, 30);
+	}
+
+	/**
+	 * Construct an instance of <tt>ProgressReporter</tt>.
+	 * 
+	 * @param bar
+	 *            the progress bar to publish to
+	 * @param fps
+	 *            the frames to publish per second
+	 */
+	public ProgressReporter(JProgressBar bar, int fps)
+	{
+		if (fps <= 0)
+			throw new IllegalArgumentException(
+					Messages.getString("ProgressReporter.0")); //$NON-NLS-1$
+		this.bar = bar;
+		timer = new Timer(1000 / fps, new ActionListener()
+		{
+			public void actionPerformed(ActionEvent e)
+			{
+				publish();
+				if (!isRunning())
+					timer.stop();
+			}
+		});
+		timer.setCoalesce(true);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressCounter#start()
+	 */
+	@Override
+	public void start()
+	{
+		super.start();
+		// the estimator is confined to the event dispatch thread
+		if (SwingUtilities.isEventDispatchThread())
+			estimator.reset();
+		else
+			SwingUtilities.invokeLater(new Runnable()
+			{
+				public void run()
+				{
+					estimator.reset();
+				}
+			});
+		timer.start();
+	}
+
+	/**
+	 * Publish the progress to the progress bar. This method is called in the
+	 * event dispatch thread once per frame.
+	 */
+	protected void publish()
+	{
+		long length = getLength();
+		bar.setIndeterminate(length <= 0 && isRunning());
+		long now = System.nanoTime();
+		estimator.sample(getCount(), now);
+		pressure(now);
+		double fraction = getFraction();
+		int v = (int) (fraction * RESOLUTION);
+		if (v != value)
+		{
+			if (bar.getMaximum() != RESOLUTION)
+			{
+				bar.setMinimum(0);
+				bar.setMaximum(RESOLUTION);
+			}
+			bar.setValue(value = v);
+		}
+		String s = getContent();
+		if (estimationShown && isRunning())
+		{
+			if (s == null)
+				s = (int) (fraction * 100) + "%"; //$NON-NLS-1$
+			long left = estimator.getRemainingTime(length);
+			if (estimator.isStalled(now))
+				s = String.format(Messages.getString("ProgressReporter.2"), s); //$NON-NLS-1$
+			else if (left >= 0)
+			{
+				long seconds = left / 1000000000L;
+				s = String.format(Messages.getString("ProgressReporter.1"), s, //$NON-NLS-1$
+						estimator.getThroughput(), seconds / 60, seconds % 60);
+			}
+		}
+		if (s != string && (s == null || !s.equals(string))
+				&& bar.isStringPainted())
+			bar.setString(string = s);
+	}
+
+	/**
+	 * Signal the backpressure to the cancellation token by how late this
+	 * frame is, smoothed over the frames. Full pressure is signalled when the
+	 * frames are late by four frame intervals.
+	 * 
+	 * @param now
+	 *            the time of this frame
+	 */
+	private void pressure(long now)
+	{
+		long delay = timer.getDelay() * 1000000L;
+		if (frameTime != 0 && delay > 0)
+		{
+			CancellationToken token = getToken();
+			double late = (now - frameTime - delay) / (4.0 * delay);
+			token.setPressure((token.getPressure() + Math.max(late, 0)) / 2);
+		}
+		frameTime = isRunning() ? now : 0;
+	}
+
+	/**
+	 * Set whether the throughput and remaining time are shown in the string of
+	 * the progress bar. The string is painted only if
+	 * {@link JProgressBar#isStringPainted()}.
+	 * 
+	 * @param shown
+	 *            <code>true</code> to show the estimation
+	 */
+	public void setEstimationShown(boolean shown)
+	{
+		estimationShown = shown;
+	}
+
+	/**
+	 * Returns the estimator of the throughput and remaining time, which is
+	 * sampled once per frame, and should be used in the event dispatch thread
+	 * only.
+	 * 
+	 * @return the estimator
+	 */
+	public ProgressEstimator getEstimator()
+	{
+		return estimator;
+	}
+
+	/**
+	 * Returns the progress bar published to.
+	 * 
+	 * @return the progress bar
+	 */
+	public JProgressBar getProgressBar()
+	{
+		return bar;
+	}
+}
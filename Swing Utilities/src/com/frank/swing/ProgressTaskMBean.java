@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressTaskMBean.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+/**
+ * The management interface of {@link ProgressTelemetry}.
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public interface ProgressTaskMBean
+{
+	/**
+	 * Returns the name of the task.
+	 * 
+	 * @return the task name
+	 */
+	public String getName();
+
+	/**
+	 * Returns the content of the current running task, set by
+	 * {@link ProgressControl#update(String)}.
+	 * 
+	 * @return the task content
+	 */
+	public String getContent();
+
+	/**
+	 * Returns the fraction of the progress done.
+	 * 
+	 * @return the fraction in <tt>[0, 1]</tt>
+	 */
+	public double getFraction();
+
+	/**
+	 * Returns the steps counted so far.
+	 * 
+	 * @return the counted steps
+	 */
+	public double getCount();
+
+	/**
+	 * Returns the journey length.
+	 * 
+	 * @return the journey length
+	 */
+	public long getLength();
+
+	/**
+	 * Returns the weighted throughput.
+	 * 
+	 * @return the throughput in steps per second
+	 */
+	public double getThroughput();
+
+	/**
+	 * Returns the estimated remaining time.
+	 * 
+	 * @return the remaining time in milliseconds, or <code>-1</code> if
+	 *         unknown
+	 */
+	public long getRemainingTime();
+
+	/**
+	 * Returns the time elapsed since the task started.
+	 * 
+	 * @return the elapsed time in milliseconds
+	 */
+	public long getElapsedTime();
+
+	/**
+	 * Returns <code>true</code> if no progress is made for the stall timeout.
+	 * 
+	 * @return <code>true</code> if stalled
+	 */
+	public boolean isStalled();
+
+	/**
+	 * Returns <code>true</code> if the task is running.
+	 * 
+	 * @return <code>true</code> if running
+	 */
+	public boolean isRunning();
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ProgressTelemetry.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanServer;
+import javax.management.Notification;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.ObjectName;
+import javax.management.StandardEmitterMBean;
+
+/**
+ * The progress control which exports the progress of a task through JMX.
+ * <p>
+ * The <tt>ProgressTelemetry</tt> decorates another {@link ProgressControl},
+ * all the calls are forwarded to it and also counted by an internal
+ * {@link ProgressCounter}. While the task is running, it is registered to the
+ * platform MBean server as
+ * <tt>com.frank.swing:type=ProgressTask,name=&lt;name&gt;,id=&lt;id&gt;</tt>
+ * with its content, fraction, throughput and remaining time, and emits the
+ * notifications {@value #START}, {@value #SAMPLE} every sample period, and
+ * {@value #TERMINATE}, so that the running and stuck tasks can be observed by
+ * the monitoring tools.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class ProgressTelemetry extends NotificationBroadcasterSupport implements
+		ProgressControl, ProgressTaskMBean
+{
+	/**
+	 * The notification type of the task start.
+	 */
+	public static final String						START		= "progress.start";		//$NON-NLS-1$
+	/**
+	 * The notification type of the periodic sample.
+	 */
+	public static final String						SAMPLE		= "progress.sample";		//$NON-NLS-1$
+	/**
+	 * The notification type of the task termination.
+	 */
+	public static final String						TERMINATE	= "progress.terminate";	//$NON-NLS-1$
+	/**
+	 * The scheduler of the samples.
+	 */
+	private static ScheduledExecutorService			scheduler;
+	/**
+	 * The sequence of the task ids.
+	 */
+	private static final AtomicLong					ids			= new AtomicLong();
+	/**
+	 * The progress to forward to, or <code>null</code>.
+	 */
+	private final ProgressControl					target;
+	/**
+	 * The name of the task.
+	 */
+	private final String							name;
+	/**
+	 * The internal counter.
+	 */
+	private final ProgressCounter					counter		= new ProgressCounter();
+	/**
+	 * The estimator sampled by the scheduler.
+	 */
+	private final ProgressEstimator					estimator	= new ProgressEstimator();
+	/**
+	 * The sample period in milliseconds.
+	 */
+	private final long								period;
+	/**
+	 * The sequence of the notifications.
+	 */
+	private final AtomicLong						sequence	= new AtomicLong();
+	/**
+	 * The registered object name, or <code>null</code>.
+	 */
+	private ObjectName								objectName;
+	/**
+	 * The scheduled sampling, or <code>null</code>.
+	 */
+	private ScheduledFuture<?>						sampling;
+	/**
+	 * The failure of the last registration, or <code>null</code>.
+	 */
+	private JMException								failure;
+	/**
+	 * The start time by {@link System#nanoTime()}.
+	 */
+	private volatile long							startTime;
+
+	/**
+	 * Construct an instance of <tt>ProgressTelemetry</tt> which samples every
+	 * second.
+	 * 
+	 * @param name
+	 *            the name of the task, or <code>null</code> for an untitled
+	 *            task
+	 * @param target
+	 *            the progress to forward to, or <code>null</code>
+	 */
+	public ProgressTelemetry(String name, ProgressControl target)
+	{
+		this(name, target, 1000);
+	}
+
+	/**
+	 * Construct an instance of <tt>ProgressTelemetry</tt>.
+	 * 
+	 * @param name
+	 *            the name of the task, or <code>null</code> for an untitled
+	 *            task
+	 * @param target
+	 *            the progress to forward to, or <code>null</code>
+	 * @param period
+	 *            the sample period in milliseconds
+	 */
+	public ProgressTelemetry(String name, ProgressControl target, long period)
+	{
+		super(new MBeanNotificationInfo(new String[] { START, SAMPLE,
+				TERMINATE }, Notification.class.getName(), Messages
+				.getString("ProgressTelemetry.0"))); //$NON-NLS-1$
+		this.name = name != null ? name : Messages
+				.getString("ProgressTelemetry.1"); //$NON-NLS-1$
+		this.target = target;
+		this.period = period;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#start()
+	 */
+	@Override
+	public synchronized void start()
+	{
+		counter.start();
+		startTime = System.nanoTime();
+		synchronized (estimator)
+		{
+			estimator.reset();
+		}
+		if (target != null)
+			target.start();
+		try
+		{
+			if (objectName == null)
+			{
+				objectName = new ObjectName("com.frank.swing:type=ProgressTask,name=" //$NON-NLS-1$
+						+ ObjectName.quote(name) + ",id=" + ids.incrementAndGet()); //$NON-NLS-1$
+				ManagementFactory.getPlatformMBeanServer().registerMBean(
+						new StandardEmitterMBean(this, ProgressTaskMBean.class,
+								this), objectName);
+				failure = null;
+			}
+		}
+		catch (JMException e)
+		{
+			// the task still runs, unobserved
+			objectName = null;
+			failure = e;
+		}
+		emit(START);
+		if (sampling == null)
+			sampling = scheduler().scheduleAtFixedRate(new Runnable()
+			{
+				public void run()
+				{
+					sample();
+				}
+			}, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#terminate()
+	 */
+	@Override
+	public synchronized void terminate()
+	{
+		counter.terminate();
+		if (target != null)
+			target.terminate();
+		if (sampling != null)
+		{
+			sampling.cancel(false);
+			sampling = null;
+		}
+		sample();
+		emit(TERMINATE);
+		if (objectName != null)
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try
+			{
+				server.unregisterMBean(objectName);
+			}
+			catch (JMException e)
+			{
+				// already unregistered
+			}
+			objectName = null;
+		}
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#setLength(int)
+	 */
+	@Override
+	public void setLength(int length)
+	{
+		counter.setLength(length);
+		if (target != null)
+			target.setLength(length);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update()
+	 */
+	@Override
+	public void update()
+	{
+		counter.update();
+		if (target != null)
+			target.update();
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(java.lang.String)
+	 */
+	@Override
+	public void update(String content)
+	{
+		counter.update(content);
+		if (target != null)
+			target.update(content);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(double)
+	 */
+	@Override
+	public void update(double step)
+	{
+		counter.update(step);
+		if (target != null)
+			target.update(step);
+	}
+
+	/**
+	 * Sample the estimator and emit a sample notification.
+	 */
+	private void sample()
+	{
+		synchronized (estimator)
+		{
+			estimator.sample(counter.getCount(), System.nanoTime());
+		}
+		if (counter.isRunning())
+			emit(SAMPLE);
+	}
+
+	/**
+	 * Emit a notification of the specified type, with the fraction as its user
+	 * data.
+	 * 
+	 * @param type
+	 *            the notification type
+	 */
+	private void emit(String type)
+	{
+		Notification n = new Notification(type, objectName == null ? this
+				: objectName, sequence.incrementAndGet(),
+				System.currentTimeMillis(), String.format("%s: %s %.2f%%, %.1f/s", //$NON-NLS-1$
+						name, counter.getContent(), getFraction() * 100,
+						getThroughput()));
+		n.setUserData(getFraction());
+		sendNotification(n);
+	}
+
+	/**
+	 * Returns the failure of the last registration to the platform MBean
+	 * server. The task is not observable through JMX while it failed.
+	 * 
+	 * @return the failure, or <code>null</code> if the task is registered or
+	 *         not started
+	 */
+	public synchronized JMException getRegistrationFailure()
+	{
+		return failure;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#getName()
+	 */
+	@Override
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#getContent()
+	 */
+	@Override
+	public String getContent()
+	{
+		return counter.getContent();
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#getFraction()
+	 */
+	@Override
+	public double getFraction()
+	{
+		return counter.getFraction();
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#getCount()
+	 */
+	@Override
+	public double getCount()
+	{
+		return counter.getCount();
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#getLength()
+	 */
+	@Override
+	public long getLength()
+	{
+		return counter.getLength();
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#getThroughput()
+	 */
+	@Override
+	public double getThroughput()
+	{
+		synchronized (estimator)
+		{
+			return estimator.getThroughput();
+		}
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#getRemainingTime()
+	 */
+	@Override
+	public long getRemainingTime()
+	{
+		long left;
+		synchronized (estimator)
+		{
+			left = estimator.getRemainingTime(counter.getLength());
+		}
+		return left < 0 ? -1 : left / 1000000L;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#getElapsedTime()
+	 */
+	@Override
+	public long getElapsedTime()
+	{
+		return (System.nanoTime() - startTime) / 1000000L;
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#isStalled()
+	 */
+	@Override
+	public boolean isStalled()
+	{
+		synchronized (estimator)
+		{
+			return counter.isRunning() && estimator.isStalled(System.nanoTime());
+		}
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressTaskMBean#isRunning()
+	 */
+	@Override
+	public boolean isRunning()
+	{
+		return counter.isRunning();
+	}
+
+	/**
+	 * Returns the scheduler of the samples, which runs on a daemon thread.
+	 * 
+	 * @return the scheduler
+	 */
+	private static synchronized ScheduledExecutorService scheduler()
+	{
+		if (scheduler == null)
+			scheduler = Executors
+					.newSingleThreadScheduledExecutor(new ThreadFactory()
+					{
+						public Thread newThread(Runnable r)
+						{
+							Thread t = new Thread(r, "ProgressTelemetry"); //$NON-NLS-1$
+							t.setDaemon(true);
+							return t;
+						}
+					});
+		return scheduler;
+	}
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * Recyclable.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+/**
+ * Interface for a recyclable component. Using this interface, the implemented
+ * component can be reset to its initial state and reused by a
+ * {@link ComponentPool} instead of being created again.
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public interface Recyclable
+{
+	/**
+	 * Reset the component to its initial state before it is returned to the
+	 * pool. The listeners installed by a {@link ComponentAction} should also be
+	 * removed here, since the component will be binded to another button.
+	 */
+	public void recycle();
+}
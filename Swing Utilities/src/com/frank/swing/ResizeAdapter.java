@@ -6,10 +6,13 @@
 package com.frank.swing;
 
 import java.awt.Component;
-import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 
+import javax.swing.Timer;
+
 /**
  * The adapter of a component listener which makes the dimension of specified
  * component automatically adjusting to the dimension of the under listening
@@ -18,6 +21,14 @@ import java.awt.event.ComponentEvent;
  * Several types of listening policies are define in the adapter. With different
  * policy the component can change its dimension differently.
  * </p>
+ * <p>
+ * In the coalescing mode, the resize events are not handled at once. The
+ * latest dimension of the parent component is applied at most once per frame,
+ * the intermediate dimensions are skipped. After the resizing settles, a
+ * trailing pass is performed, during which {@link #isAdjusting()} turns to
+ * <code>false</code> and the component is repainted, so that the component
+ * can render cheaply while adjusting and in full quality at last.
+ * </p>
  * 
  * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
  * @version 1.0.0
@@ -122,6 +133,10 @@ public class ResizeAdapter extends ComponentAdapter
 	 * the half as the subtraction of parent height to component height.
 	 */
 	public static final int	CENTER_VERTICAL_RIGHT		= 521;
+	/**
+	 * The delay of one frame in milliseconds for the coalescing mode.
+	 */
+	public static final int	FRAME_DELAY					= 16;
 	/**
 	 * The margin to the left border.
 	 */
@@ -146,6 +161,35 @@ public class ResizeAdapter extends ComponentAdapter
 	 * The component to adjusting.
 	 */
 	private Component		comp;
+	/**
+	 * The flag whether the resize events are coalesced.
+	 */
+	private boolean			coalescing;
+	/**
+	 * The delay in milliseconds after the last resize event to perform the
+	 * trailing pass, non-positive value for no trailing pass.
+	 */
+	private int				settleDelay					= 200;
+	/**
+	 * The flag whether the resizing is in progress in the coalescing mode.
+	 */
+	private boolean			adjusting;
+	/**
+	 * The latest resized parent component in the coalescing mode.
+	 */
+	private Component		source;
+	/**
+	 * The timer to apply the latest dimension once per frame.
+	 */
+	private Timer			frameTimer;
+	/**
+	 * The timer to perform the trailing pass.
+	 */
+	private Timer			settleTimer;
+	/**
+	 * The buffer of the computed bounds.
+	 */
+	private final int[]		bounds						= new int[4];
 
 	/**
 	 * Construct an default instance of ResizeAdapter. This adapter will
@@ -231,129 +275,246 @@ public class ResizeAdapter extends ComponentAdapter
 	 */
 	public void componentResized(ComponentEvent e)
 	{
-		Rectangle r = e.getComponent().getBounds();
+		if (!coalescing)
+		{
+			adjust(e.getComponent());
+			return;
+		}
+		source = e.getComponent();
+		adjusting = true;
+		if (frameTimer == null)
+		{
+			frameTimer = new Timer(FRAME_DELAY, new ActionListener()
+			{
+				public void actionPerformed(ActionEvent e)
+				{
+					adjust(source);
+				}
+			});
+			frameTimer.setRepeats(false);
+			settleTimer = new Timer(settleDelay, new ActionListener()
+			{
+				public void actionPerformed(ActionEvent e)
+				{
+					adjusting = false;
+					adjust(source);
+					comp.repaint();
+				}
+			});
+			settleTimer.setRepeats(false);
+		}
+		if (!frameTimer.isRunning())
+			frameTimer.start();
+		if (settleDelay > 0)
+		{
+			settleTimer.setInitialDelay(settleDelay);
+			settleTimer.restart();
+		}
+		else
+			adjusting = false;
+	}
+
+	/**
+	 * Adjust the component according to the current dimension of the parent
+	 * component.
+	 * 
+	 * @param parent
+	 *            the parent component
+	 */
+	protected void adjust(Component parent)
+	{
+		LayoutMonitor monitor = LayoutMonitor.getDefault();
+		long time = monitor.begin();
+		bounds(policy, top, bottom, left, right, parent.getWidth(),
+				parent.getHeight(), comp.getX(), comp.getY(), comp.getWidth(),
+				comp.getHeight(), this.bounds, 0);
+		comp.setBounds(this.bounds[0], this.bounds[1], this.bounds[2],
+				this.bounds[3]);
+		comp.validate();
+		monitor.end(comp, time);
+	}
+
+	/**
+	 * Compute the bounds of a component according to the specified policy,
+	 * margins and the dimension of the parent component. The result is stored
+	 * as <tt>x, y, width, height</tt> in the output array.
+	 * 
+	 * @param policy
+	 *            the adjusting policy
+	 * @param top
+	 *            the margin to top
+	 * @param bottom
+	 *            the margin to bottom
+	 * @param left
+	 *            the margin to left
+	 * @param right
+	 *            the margin to right
+	 * @param pw
+	 *            the width of the parent component
+	 * @param ph
+	 *            the height of the parent component
+	 * @param x
+	 *            the current X-axis of the component
+	 * @param y
+	 *            the current Y-axis of the component
+	 * @param w
+	 *            the current width of the component
+	 * @param h
+	 *            the current height of the component
+	 * @param out
+	 *            the output array
+	 * @param offset
+	 *            the offset in the output array
+	 */
+	static void bounds(int policy, int top, int bottom, int left, int right,
+			int pw, int ph, int x, int y, int w, int h, int[] out, int offset)
+	{
 		switch (policy)
 		{
 			default:
 			case BOTH:
-				comp.setBounds(left, top, r.width - left - right, r.height
-						- top - bottom);
+				x = left;
+				y = top;
+				w = pw - left - right;
+				h = ph - top - bottom;
 				break;
 			case WIDTH_TOP:
-			{
-				int height = comp.getBounds().height;
-				comp.setBounds(left, top, r.width - left - right, height);
-			}
+				x = left;
+				y = top;
+				w = pw - left - right;
 				break;
 			case WIDTH_BOTTOM:
-			{
-				int height = comp.getBounds().height;
-				comp.setBounds(left, r.height - height - bottom, r.width - left
-						- right, height);
-			}
+				x = left;
+				y = ph - h - bottom;
+				w = pw - left - right;
 				break;
 			case HEIGHT_LEFT:
-			{
-				int width = comp.getBounds().width;
-				comp.setBounds(left, top, width, r.height - top - bottom);
-			}
+				x = left;
+				y = top;
+				h = ph - top - bottom;
 				break;
 			case HEIGHT_RIGHT:
-			{
-				int width = comp.getBounds().width;
-				comp.setBounds(r.width - width - right, top, width, r.height
-						- top - bottom);
-			}
+				x = pw - w - right;
+				y = top;
+				h = ph - top - bottom;
 				break;
 			case BORDER_TOP:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(rt.x, top, rt.width, rt.height);
-			}
+				y = top;
 				break;
 			case BORDER_TOP_LEFT:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(left, top, rt.width, rt.height);
-			}
+				x = left;
+				y = top;
 				break;
 			case BORDER_TOP_RIGHT:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(r.width - right - rt.width, top, rt.width,
-						rt.height);
-			}
+				x = pw - right - w;
+				y = top;
 				break;
 			case BORDER_BOTTOM:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(rt.x, r.height - bottom - rt.height, rt.width,
-						rt.height);
-			}
+				y = ph - bottom - h;
 				break;
 			case BORDER_BOTTOM_LEFT:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(left, r.height - bottom - rt.height, rt.width,
-						rt.height);
-			}
+				x = left;
+				y = ph - bottom - h;
 				break;
 			case BORDER_BOTTOM_RIGHT:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(r.width - right - rt.width, r.height - bottom
-						- rt.height, rt.width, rt.height);
-			}
+				x = pw - right - w;
+				y = ph - bottom - h;
 				break;
 			case BORDER_LEFT:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(left, rt.y, rt.width, rt.height);
-			}
+				x = left;
 				break;
 			case BORDER_RIGHT:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(r.width - right - rt.width, rt.y, rt.width,
-						rt.height);
-			}
+				x = pw - right - w;
 				break;
 			case CENTER:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds((r.width - rt.width) / 2,
-						(r.height - rt.height) / 2, rt.width, rt.height);
-			}
+				x = (pw - w) / 2;
+				y = (ph - h) / 2;
 				break;
 			case CENTER_HORIZONTAL_TOP:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds((r.width - rt.width) / 2, top, rt.width,
-						rt.height);
-			}
+				x = (pw - w) / 2;
+				y = top;
 				break;
 			case CENTER_VERTICAL_LEFT:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(left, (r.height - rt.height) / 2, rt.width,
-						rt.height);
-			}
+				x = left;
+				y = (ph - h) / 2;
 				break;
 			case CENTER_HORIZONTAL_BOTTOM:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds((r.width - rt.width) / 2, r.height - rt.height
-						- bottom, rt.width, rt.height);
-			}
+				x = (pw - w) / 2;
+				y = ph - h - bottom;
 				break;
 			case CENTER_VERTICAL_RIGHT:
-			{
-				Rectangle rt = comp.getBounds();
-				comp.setBounds(r.x - rt.width - right,
-						(r.height - rt.height) / 2, rt.width, rt.height);
-			}
+				x = pw - w - right;
+				y = (ph - h) / 2;
 				break;
 		}
-		comp.validate();
+		out[offset] = x;
+		out[offset + 1] = y;
+		out[offset + 2] = w;
+		out[offset + 3] = h;
+	}
+
+	/**
+	 * Set whether the resize events are coalesced. In the coalescing mode, the
+	 * component is adjusted at most once per frame.
+	 * 
+	 * @param coalescing
+	 *            <code>true</code> to coalesce the resize events
+	 */
+	public void setCoalescing(boolean coalescing)
+	{
+		this.coalescing = coalescing;
+		if (!coalescing && frameTimer != null)
+		{
+			frameTimer.stop();
+			settleTimer.stop();
+			adjusting = false;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the resize events are coalesced.
+	 * 
+	 * @return <code>true</code> if in the coalescing mode
+	 */
+	public boolean isCoalescing()
+	{
+		return coalescing;
+	}
+
+	/**
+	 * Set the delay after the last resize event to perform the trailing pass in
+	 * the coalescing mode.
+	 * 
+	 * @param settleDelay
+	 *            the delay in milliseconds, non-positive value for no trailing
+	 *            pass
+	 */
+	public void setSettleDelay(int settleDelay)
+	{
+		this.settleDelay = settleDelay;
+	}
+
+	/**
+	 * Returns the delay after the last resize event to perform the trailing
+	 * pass in the coalescing mode.
+	 * 
+	 * @return the delay in milliseconds
+	 */
+	public int getSettleDelay()
+	{
+		return settleDelay;
+	}
+
+	/**
+	 * Returns <code>true</code> if the resizing is in progress in the
+	 * coalescing mode. The component may render in a cheaper way when the
+	 * resizing is in progress, it will be repainted after the resizing
+	 * settles.
+	 * 
+	 * @return <code>true</code> if the resizing is in progress
+	 */
+	public boolean isAdjusting()
+	{
+		return adjusting;
 	}
 }
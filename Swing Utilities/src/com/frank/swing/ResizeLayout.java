@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * ResizeLayout.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.LayoutManager2;
+import java.util.Arrays;
+
+/**
+ * The layout manager which adjusts the children with the policies defined in
+ * {@link ResizeAdapter}.
+ * <p>
+ * Instead of registering a {@link ResizeAdapter} to the parent component for
+ * each child, the children are added to a container using this layout with
+ * their {@link Constraints}. When the container is resized, the bounds of all
+ * the children are computed in one pass over flat primitive arrays, then the
+ * container is validated only once.
+ * </p>
+ * <p>
+ * The margins are measured from the bounds of the container, as
+ * {@link ResizeAdapter} does, the insets of the container are not included.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class ResizeLayout implements LayoutManager2
+{
+	/**
+	 * The managed children.
+	 */
+	private Component[]	comps		= new Component[16];
+	/**
+	 * The adjusting policies of the children.
+	 */
+	private int[]		policies	= new int[16];
+	/**
+	 * The margins of the children, stored as <tt>top, bottom, left,
+	 * right</tt>.
+	 */
+	private int[]		margins		= new int[64];
+	/**
+	 * The computed bounds of the children, stored as <tt>x, y, width,
+	 * height</tt>.
+	 */
+	private int[]		bounds		= new int[64];
+	/**
+	 * The amount of managed children.
+	 */
+	private int			count;
+
+	/**
+	 * Add the specified component to the layout with specified constraints.
+	 * 
+	 * @param comp
+	 *            the component to be added
+	 * @param constraints
+	 *            an instance of {@link Constraints}, or <code>null</code> for
+	 *            {@link ResizeAdapter#BOTH} with default margin(10)
+	 * @see java.awt.LayoutManager2#addLayoutComponent(java.awt.Component,
+	 *      java.lang.Object)
+	 */
+	@Override
+	public void addLayoutComponent(Component comp, Object constraints)
+	{
+		Constraints c;
+		if (constraints == null)
+			c = new Constraints(ResizeAdapter.BOTH);
+		else if (constraints instanceof Constraints)
+			c = (Constraints) constraints;
+		else
+			throw new IllegalArgumentException(String.format(
+					Messages.getString("ResizeLayout.0"), constraints)); //$NON-NLS-1$
+		setConstraints(comp, c);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#addLayoutComponent(java.lang.String,
+	 *      java.awt.Component)
+	 */
+	@Override
+	public void addLayoutComponent(String name, Component comp)
+	{
+		addLayoutComponent(comp, null);
+	}
+
+	/**
+	 * Set the constraints for the specified component in this layout.
+	 * 
+	 * @param comp
+	 *            the component to be modified
+	 * @param c
+	 *            the constraints to be applied
+	 */
+	public void setConstraints(Component comp, Constraints c)
+	{
+		int i = indexOf(comp);
+		if (i == -1)
+		{
+			if (count == comps.length)
+			{
+				int n = count * 2;
+				comps = Arrays.copyOf(comps, n);
+				policies = Arrays.copyOf(policies, n);
+				margins = Arrays.copyOf(margins, n * 4);
+				bounds = Arrays.copyOf(bounds, n * 4);
+			}
+			i = count++;
+			comps[i] = comp;
+		}
+		policies[i] = c.policy;
+		int m = i * 4;
+		margins[m] = c.top;
+		margins[m + 1] = c.bottom;
+		margins[m + 2] = c.left;
+		margins[m + 3] = c.right;
+	}
+
+	/**
+	 * Returns the constraints of the specified component in this layout.
+	 * 
+	 * @param comp
+	 *            the component to be queried
+	 * @return the constraints, or <code>null</code> if the component is not
+	 *         managed by this layout
+	 */
+	public Constraints getConstraints(Component comp)
+	{
+		int i = indexOf(comp);
+		if (i == -1)
+			return null;
+		int m = i * 4;
+		return new Constraints(margins[m], margins[m + 1], margins[m + 2],
+				margins[m + 3], policies[i]);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#removeLayoutComponent(java.awt.Component)
+	 */
+	@Override
+	public void removeLayoutComponent(Component comp)
+	{
+		int i = indexOf(comp);
+		if (i == -1)
+			return;
+		// move the last child to the removed slot
+		int last = --count;
+		comps[i] = comps[last];
+		policies[i] = policies[last];
+		System.arraycopy(margins, last * 4, margins, i * 4, 4);
+		comps[last] = null;
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#layoutContainer(java.awt.Container)
+	 */
+	@Override
+	public void layoutContainer(Container parent)
+	{
+		LayoutMonitor monitor = LayoutMonitor.getDefault();
+		long time = monitor.begin();
+		int pw = parent.getWidth(), ph = parent.getHeight();
+		int n = count;
+		for (int i = 0, m = 0; i < n; i++, m += 4)
+		{
+			Component c = comps[i];
+			ResizeAdapter.bounds(policies[i], margins[m], margins[m + 1],
+					margins[m + 2], margins[m + 3], pw, ph, c.getX(), c.getY(),
+					c.getWidth(), c.getHeight(), bounds, m);
+		}
+		// the children are validated by the container after the layout
+		for (int i = 0, m = 0; i < n; i++, m += 4)
+			comps[i].setBounds(bounds[m], bounds[m + 1], bounds[m + 2],
+					bounds[m + 3]);
+		monitor.end(parent, time);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#preferredLayoutSize(java.awt.Container)
+	 */
+	@Override
+	public Dimension preferredLayoutSize(Container parent)
+	{
+		int width = 0, height = 0;
+		for (int i = 0, m = 0; i < count; i++, m += 4)
+		{
+			Component c = comps[i];
+			width = Math.max(width, c.getX() + c.getWidth() + margins[m + 3]);
+			height = Math
+					.max(height, c.getY() + c.getHeight() + margins[m + 1]);
+		}
+		Insets insets = parent.getInsets();
+		return new Dimension(width + insets.left + insets.right, height
+				+ insets.top + insets.bottom);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager#minimumLayoutSize(java.awt.Container)
+	 */
+	@Override
+	public Dimension minimumLayoutSize(Container parent)
+	{
+		Insets insets = parent.getInsets();
+		return new Dimension(insets.left + insets.right, insets.top
+				+ insets.bottom);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#maximumLayoutSize(java.awt.Container)
+	 */
+	@Override
+	public Dimension maximumLayoutSize(Container target)
+	{
+		return new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#getLayoutAlignmentX(java.awt.Container)
+	 */
+	@Override
+	public float getLayoutAlignmentX(Container target)
+	{
+		return 0.5f;
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#getLayoutAlignmentY(java.awt.Container)
+	 */
+	@Override
+	public float getLayoutAlignmentY(Container target)
+	{
+		return 0.5f;
+	}
+
+	/**
+	 * @see java.awt.LayoutManager2#invalidateLayout(java.awt.Container)
+	 */
+	@Override
+	public void invalidateLayout(Container target)
+	{
+		// no cached information
+	}
+
+	/**
+	 * Returns the index of the specified component in the managed children.
+	 * 
+	 * @param comp
+	 *            the component to search for
+	 * @return the index, or -1 if not managed
+	 */
+	private int indexOf(Component comp)
+	{
+		for (int i = 0; i < count; i++)
+			if (comps[i] == comp)
+				return i;
+		return -1;
+	}
+
+	/**
+	 * The constraints of a component in {@link ResizeLayout}, which are the
+	 * same as the arguments of {@link ResizeAdapter}.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	public static class Constraints
+	{
+		/**
+		 * The margin to the top border.
+		 */
+		protected int	top		= 10;
+		/**
+		 * The margin to the bottom border.
+		 */
+		protected int	bottom	= 10;
+		/**
+		 * The margin to the left border.
+		 */
+		protected int	left	= 10;
+		/**
+		 * The margin to the right border.
+		 */
+		protected int	right	= 10;
+		/**
+		 * The adjusting policy.
+		 */
+		protected int	policy	= ResizeAdapter.BOTH;
+
+		/**
+		 * Construct an instance of <tt>Constraints</tt> with specified policy
+		 * and default margin(10).
+		 * 
+		 * @param policy
+		 *            The adjusting policy.
+		 */
+		public Constraints(int policy)
+		{
+			this.policy = policy;
+		}
+
+		/**
+		 * Construct an instance of <tt>Constraints</tt> with policy
+		 * {@link ResizeAdapter#BOTH}.
+		 * 
+		 * @param top
+		 *            The margin to top.
+		 * @param bottom
+		 *            The margin to bottom.
+		 * @param left
+		 *            The margin to left.
+		 * @param right
+		 *            The margin to right.
+		 */
+		public Constraints(int top, int bottom, int left, int right)
+		{
+			this.top = top;
+			this.bottom = bottom;
+			this.left = left;
+			this.right = right;
+		}
+
+		/**
+		 * Construct an instance of <tt>Constraints</tt>.
+		 * 
+		 * @param top
+		 *            The margin to top.
+		 * @param bottom
+		 *            The margin to bottom.
+		 * @param left
+		 *            The margin to left.
+		 * @param right
+		 *            The margin to right.
+		 * @param policy
+		 *            The adjusting policy.
+		 */
+		public Constraints(int top, int bottom, int left, int right, int policy)
+		{
+			this(top, bottom, left, right);
+			this.policy = policy;
+		}
+
+		/**
+		 * Returns the adjusting policy.
+		 * 
+		 * @return the adjusting policy
+		 */
+		public int getPolicy()
+		{
+			return policy;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * SnapshotCodec.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.io.IOException;
+
+/**
+ * The codec of the state extracted from a {@link Recreatable}.
+ * <p>
+ * A <tt>SnapshotCodec</tt> writes the fields of a state explicitly to a
+ * {@link SnapshotEncoder} and reads them back from a {@link SnapshotDecoder},
+ * without any reflection. Each snapshot records the version of the codec
+ * which wrote it, and the version is passed back to
+ * {@link #decode(SnapshotDecoder, int)}. To evolve the schema, increase the
+ * version and append the new fields after the old ones: a newer codec reads
+ * the new fields only from the newer versions, and an older codec ignores the
+ * trailing fields it does not know, since every payload is length-prefixed.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @param <T>
+ *            the type of state
+ * @version 1.0.0
+ */
+public interface SnapshotCodec<T>
+{
+	/**
+	 * Returns the version of the schema written by this codec.
+	 * 
+	 * @return the schema version
+	 */
+	public int getVersion();
+
+	/**
+	 * Write the state to the encoder.
+	 * 
+	 * @param state
+	 *            the state to write
+	 * @param out
+	 *            the encoder
+	 * @throws IOException
+	 *             if the state cannot be written
+	 */
+	public void encode(T state, SnapshotEncoder out) throws IOException;
+
+	/**
+	 * Read the state from the decoder.
+	 * 
+	 * @param in
+	 *            the decoder of the payload
+	 * @param version
+	 *            the schema version which the payload is written in
+	 * @return the state read
+	 * @throws IOException
+	 *             if the payload is malformed
+	 */
+	public T decode(SnapshotDecoder in, int version) throws IOException;
+}
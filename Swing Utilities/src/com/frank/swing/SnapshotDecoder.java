@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * SnapshotDecoder.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary decoder of the snapshots, which reads the values written by
+ * {@link SnapshotEncoder} from a byte buffer.
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class SnapshotDecoder
+{
+	/**
+	 * The buffer read.
+	 */
+	private final ByteBuffer	buffer;
+
+	/**
+	 * Construct an instance of <tt>SnapshotDecoder</tt> which reads the
+	 * remaining bytes of the buffer.
+	 * 
+	 * @param buffer
+	 *            the buffer to read
+	 */
+	public SnapshotDecoder(ByteBuffer buffer)
+	{
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Construct an instance of <tt>SnapshotDecoder</tt> which reads the byte
+	 * array.
+	 * 
+	 * @param bytes
+	 *            the bytes to read
+	 */
+	public SnapshotDecoder(byte[] bytes)
+	{
+		this(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Ensure the buffer has the specified bytes to read.
+	 * 
+	 * @param n
+	 *            the bytes to read
+	 * @throws EOFException
+	 *             if the buffer ends
+	 */
+	private void require(int n) throws EOFException
+	{
+		if (n < 0 || buffer.remaining() < n)
+			throw new EOFException();
+	}
+
+	/**
+	 * Returns <code>true</code> if there are bytes left, the codecs may check
+	 * it to read the optional trailing fields.
+	 * 
+	 * @return <code>true</code> if there are bytes left
+	 */
+	public boolean hasRemaining()
+	{
+		return buffer.hasRemaining();
+	}
+
+	/**
+	 * Read a boolean value.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public boolean readBoolean() throws IOException
+	{
+		return readByte() != 0;
+	}
+
+	/**
+	 * Read a byte.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public byte readByte() throws IOException
+	{
+		require(1);
+		return buffer.get();
+	}
+
+	/**
+	 * Read a zig-zag variable-length integer.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends or the integer is malformed
+	 */
+	public int readVarInt() throws IOException
+	{
+		int v = readUnsigned();
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	/**
+	 * Read a zig-zag variable-length long integer.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends or the integer is malformed
+	 */
+	public long readVarLong() throws IOException
+	{
+		long v = 0;
+		try
+		{
+			for (int shift = 0; shift < 64; shift += 7)
+			{
+				byte b = buffer.get();
+				v |= (long) (b & 0x7F) << shift;
+				if (b >= 0)
+					return (v >>> 1) ^ -(v & 1);
+			}
+		}
+		catch (BufferUnderflowException e)
+		{
+			throw new EOFException();
+		}
+		throw new StreamCorruptedException();
+	}
+
+	/**
+	 * Read a variable-length integer without zig-zag.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends or the integer is malformed
+	 */
+	int readUnsigned() throws IOException
+	{
+		int v = 0;
+		try
+		{
+			for (int shift = 0; shift < 32; shift += 7)
+			{
+				byte b = buffer.get();
+				v |= (b & 0x7F) << shift;
+				if (b >= 0)
+					return v;
+			}
+		}
+		catch (BufferUnderflowException e)
+		{
+			throw new EOFException();
+		}
+		throw new StreamCorruptedException();
+	}
+
+	/**
+	 * Read an integer in 4 bytes.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public int readInt() throws IOException
+	{
+		require(4);
+		return buffer.getInt();
+	}
+
+	/**
+	 * Read a long integer in 8 bytes.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public long readLong() throws IOException
+	{
+		require(8);
+		return buffer.getLong();
+	}
+
+	/**
+	 * Read a float in 4 bytes.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public float readFloat() throws IOException
+	{
+		require(4);
+		return buffer.getFloat();
+	}
+
+	/**
+	 * Read a double in 8 bytes.
+	 * 
+	 * @return the value
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public double readDouble() throws IOException
+	{
+		require(8);
+		return buffer.getDouble();
+	}
+
+	/**
+	 * Read a length-prefixed UTF-8 string.
+	 * 
+	 * @return the string, or <code>null</code>
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public String readString() throws IOException
+	{
+		int n = readUnsigned() - 1;
+		if (n < 0)
+			return null;
+		require(n);
+		if (buffer.hasArray())
+		{
+			String s = new String(buffer.array(), buffer.arrayOffset()
+					+ buffer.position(), n, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + n);
+			return s;
+		}
+		byte[] bytes = new byte[n];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Read a length-prefixed byte array.
+	 * 
+	 * @return the byte array, or <code>null</code>
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public byte[] readBytes() throws IOException
+	{
+		int n = readUnsigned() - 1;
+		if (n < 0)
+			return null;
+		require(n);
+		byte[] bytes = new byte[n];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Returns the next bytes as a buffer, and skip them.
+	 * 
+	 * @param n
+	 *            the amount of bytes
+	 * @return the buffer of the bytes
+	 * @throws IOException
+	 *             if the buffer ends
+	 */
+	public ByteBuffer slice(int n) throws IOException
+	{
+		require(n);
+		ByteBuffer b = buffer.slice();
+		b.limit(n);
+		buffer.position(buffer.position() + n);
+		return b;
+	}
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * SnapshotEncoder.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary encoder of the snapshots.
+ * <p>
+ * The <tt>SnapshotEncoder</tt> writes primitive values into a direct byte
+ * buffer, which grows by doubling. The integers are written as zig-zag
+ * variable-length integers, so that the small values take one byte, and the
+ * strings are written as length-prefixed UTF-8. The encoder can be
+ * {@link #reset()} and reused, so that the buffer is allocated only once.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class SnapshotEncoder
+{
+	/**
+	 * The buffer written.
+	 */
+	private ByteBuffer	buffer;
+
+	/**
+	 * Construct an instance of <tt>SnapshotEncoder</tt> with 4 KB initial
+	 * capacity.
+	 */
+	public SnapshotEncoder()
+	{
+		this(4096);
+	}
+
+	/**
+	 * Construct an instance of <tt>SnapshotEncoder</tt>.
+	 * 
+	 * @param capacity
+	 *            the initial capacity in bytes
+	 */
+	public SnapshotEncoder(int capacity)
+	{
+		buffer = ByteBuffer.allocateDirect(Math.max(16, capacity));
+	}
+
+	/**
+	 * Ensure the buffer can take the specified bytes more.
+	 * 
+	 * @param n
+	 *            the bytes to write
+	 */
+	private void ensure(int n)
+	{
+		if (buffer.remaining() >= n)
+			return;
+		int capacity = buffer.capacity();
+		while (capacity - buffer.position() < n)
+			capacity <<= 1;
+		ByteBuffer b = ByteBuffer.allocateDirect(capacity);
+		buffer.flip();
+		b.put(buffer);
+		buffer = b;
+	}
+
+	/**
+	 * Write a boolean value in one byte.
+	 * 
+	 * @param v
+	 *            the value
+	 */
+	public void writeBoolean(boolean v)
+	{
+		ensure(1);
+		buffer.put((byte) (v ? 1 : 0));
+	}
+
+	/**
+	 * Write a byte.
+	 * 
+	 * @param v
+	 *            the value
+	 */
+	public void writeByte(int v)
+	{
+		ensure(1);
+		buffer.put((byte) v);
+	}
+
+	/**
+	 * Write an integer as a zig-zag variable-length integer.
+	 * 
+	 * @param v
+	 *            the value
+	 */
+	public void writeVarInt(int v)
+	{
+		writeUnsigned((v << 1) ^ (v >> 31));
+	}
+
+	/**
+	 * Write a long integer as a zig-zag variable-length integer.
+	 * 
+	 * @param v
+	 *            the value
+	 */
+	public void writeVarLong(long v)
+	{
+		v = (v << 1) ^ (v >> 63);
+		ensure(10);
+		while ((v & ~0x7FL) != 0)
+		{
+			buffer.put((byte) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		buffer.put((byte) v);
+	}
+
+	/**
+	 * Write a non-negative integer, such as a length, as a variable-length
+	 * integer without zig-zag.
+	 * 
+	 * @param v
+	 *            the value, treated as unsigned
+	 */
+	void writeUnsigned(int v)
+	{
+		ensure(5);
+		while ((v & ~0x7F) != 0)
+		{
+			buffer.put((byte) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		buffer.put((byte) v);
+	}
+
+	/**
+	 * Write an integer in 4 bytes.
+	 * 
+	 * @param v
+	 *            the value
+	 */
+	public void writeInt(int v)
+	{
+		ensure(4);
+		buffer.putInt(v);
+	}
+
+	/**
+	 * Write a long integer in 8 bytes.
+	 * 
+	 * @param v
+	 *            the value
+	 */
+	public void writeLong(long v)
+	{
+		ensure(8);
+		buffer.putLong(v);
+	}
+
+	/**
+	 * Write a float in 4 bytes.
+	 * 
+	 * @param v
+	 *            the value
+	 */
+	public void writeFloat(float v)
+	{
+		ensure(4);
+		buffer.putFloat(v);
+	}
+
+	/**
+	 * Write a double in 8 bytes.
+	 * 
+	 * @param v
+	 *            the value
+	 */
+	public void writeDouble(double v)
+	{
+		ensure(8);
+		buffer.putDouble(v);
+	}
+
+	/**
+	 * Write a string as length-prefixed UTF-8, <code>null</code> is allowed.
+	 * 
+	 * @param s
+	 *            the string
+	 */
+	public void writeString(String s)
+	{
+		if (s == null)
+		{
+			writeUnsigned(0);
+			return;
+		}
+		int n = s.length();
+		ensure(n + 5);
+		int start = buffer.position();
+		writeUnsigned(n + 1);
+		for (int i = 0; i < n; i++)
+		{
+			char c = s.charAt(i);
+			if (c >= 0x80)
+			{
+				// not ASCII, rewrite by the charset
+				buffer.position(start);
+				byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				writeUnsigned(bytes.length + 1);
+				ensure(bytes.length);
+				buffer.put(bytes);
+				return;
+			}
+			buffer.put((byte) c);
+		}
+	}
+
+	/**
+	 * Write a length-prefixed byte array, <code>null</code> is allowed.
+	 * 
+	 * @param bytes
+	 *            the byte array
+	 */
+	public void writeBytes(byte[] bytes)
+	{
+		if (bytes == null)
+		{
+			writeUnsigned(0);
+			return;
+		}
+		writeUnsigned(bytes.length + 1);
+		ensure(bytes.length);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Write the remaining bytes of the buffer without length.
+	 * 
+	 * @param src
+	 *            the buffer to copy
+	 */
+	public void writeRaw(ByteBuffer src)
+	{
+		ensure(src.remaining());
+		buffer.put(src);
+	}
+
+	/**
+	 * Returns the amount of bytes written.
+	 * 
+	 * @return the size in bytes
+	 */
+	public int size()
+	{
+		return buffer.position();
+	}
+
+	/**
+	 * Discard all the bytes written, the buffer is kept for reuse.
+	 */
+	public void reset()
+	{
+		buffer.clear();
+	}
+
+	/**
+	 * Returns a read-only view of the bytes written.
+	 * 
+	 * @return the bytes written
+	 */
+	public ByteBuffer toByteBuffer()
+	{
+		ByteBuffer b = buffer.duplicate();
+		b.flip();
+		return b.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns a copy of the bytes written.
+	 * 
+	 * @return the bytes written
+	 */
+	public byte[] toByteArray()
+	{
+		byte[] bytes = new byte[buffer.position()];
+		toByteBuffer().get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Write the bytes written to the channel.
+	 * 
+	 * @param channel
+	 *            the channel
+	 * @throws IOException
+	 *             if an I/O error occurred
+	 */
+	public void writeTo(WritableByteChannel channel) throws IOException
+	{
+		ByteBuffer b = toByteBuffer();
+		while (b.hasRemaining())
+			channel.write(b);
+	}
+
+	/**
+	 * Write the bytes written to the stream.
+	 * 
+	 * @param out
+	 *            the output stream
+	 * @throws IOException
+	 *             if an I/O error occurred
+	 */
+	public void writeTo(OutputStream out) throws IOException
+	{
+		writeTo(Channels.newChannel(out));
+	}
+}
@@ -0,0 +1,637 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * SnapshotEngine.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The snapshot engine of the {@link Recreatable} components.
+ * <p>
+ * The <tt>SnapshotEngine</tt> writes the states extracted from the components
+ * into a compact binary snapshot by the {@link SnapshotCodec}s registered for
+ * their types, and recreates the components from it. A snapshot is a header
+ * of the magic number, the format version and the amount of entries, followed
+ * by the entries, each of which is the key of the component, the id and the
+ * version of its codec, and the length-prefixed payload. The entries of the
+ * unknown codecs are skipped, and the payload is decoded with the version it
+ * was written in, so that the snapshots survive the evolution of the codecs.
+ * </p>
+ * <p>
+ * The codecs of <code>null</code>, the strings, the boxed primitives and the
+ * byte arrays are built in. The states without a registered codec fall back
+ * to the Java serialization.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class SnapshotEngine
+{
+	/**
+	 * The magic number of the snapshots.
+	 */
+	public static final int								MAGIC		= 0x534E4150;
+	/**
+	 * The format version of the snapshots.
+	 */
+	public static final int								FORMAT		= 1;
+	/**
+	 * The codec id of the Java serialization fallback.
+	 */
+	public static final String							SERIAL		= "java";	//$NON-NLS-1$
+	/**
+	 * The codecs by their ids.
+	 */
+	private final Map<String, SnapshotCodec>			codecs		= new HashMap();
+	/**
+	 * The codec ids by the exact types.
+	 */
+	private final Map<Class, String>					ids			= new HashMap();
+	/**
+	 * The registered types in order, to find the codecs of the subtypes.
+	 */
+	private final List<Class>							types		= new ArrayList();
+
+	/**
+	 * Construct an instance of <tt>SnapshotEngine</tt> with the built-in
+	 * codecs.
+	 */
+	public SnapshotEngine()
+	{
+		register("string", String.class, new SnapshotCodec<String>() //$NON-NLS-1$
+				{
+					public int getVersion()
+					{
+						return 0;
+					}
+
+					public void encode(String state, SnapshotEncoder out)
+					{
+						out.writeString(state);
+					}
+
+					public String decode(SnapshotDecoder in, int version)
+							throws IOException
+					{
+						return in.readString();
+					}
+				});
+		register("int", Integer.class, new SnapshotCodec<Integer>() //$NON-NLS-1$
+				{
+					public int getVersion()
+					{
+						return 0;
+					}
+
+					public void encode(Integer state, SnapshotEncoder out)
+					{
+						out.writeVarInt(state);
+					}
+
+					public Integer decode(SnapshotDecoder in, int version)
+							throws IOException
+					{
+						return in.readVarInt();
+					}
+				});
+		register("long", Long.class, new SnapshotCodec<Long>() //$NON-NLS-1$
+				{
+					public int getVersion()
+					{
+						return 0;
+					}
+
+					public void encode(Long state, SnapshotEncoder out)
+					{
+						out.writeVarLong(state);
+					}
+
+					public Long decode(SnapshotDecoder in, int version)
+							throws IOException
+					{
+						return in.readVarLong();
+					}
+				});
+		register("double", Double.class, new SnapshotCodec<Double>() //$NON-NLS-1$
+				{
+					public int getVersion()
+					{
+						return 0;
+					}
+
+					public void encode(Double state, SnapshotEncoder out)
+					{
+						out.writeDouble(state);
+					}
+
+					public Double decode(SnapshotDecoder in, int version)
+							throws IOException
+					{
+						return in.readDouble();
+					}
+				});
+		register("boolean", Boolean.class, new SnapshotCodec<Boolean>() //$NON-NLS-1$
+				{
+					public int getVersion()
+					{
+						return 0;
+					}
+
+					public void encode(Boolean state, SnapshotEncoder out)
+					{
+						out.writeBoolean(state);
+					}
+
+					public Boolean decode(SnapshotDecoder in, int version)
+							throws IOException
+					{
+						return in.readBoolean();
+					}
+				});
+		register("bytes", byte[].class, new SnapshotCodec<byte[]>() //$NON-NLS-1$
+				{
+					public int getVersion()
+					{
+						return 0;
+					}
+
+					public void encode(byte[] state, SnapshotEncoder out)
+					{
+						out.writeBytes(state);
+					}
+
+					public byte[] decode(SnapshotDecoder in, int version)
+							throws IOException
+					{
+						return in.readBytes();
+					}
+				});
+		codecs.put("null", new SnapshotCodec<Object>() //$NON-NLS-1$
+				{
+					public int getVersion()
+					{
+						return 0;
+					}
+
+					public void encode(Object state, SnapshotEncoder out)
+					{
+					}
+
+					public Object decode(SnapshotDecoder in, int version)
+					{
+						return null;
+					}
+				});
+		codecs.put(SERIAL, new SnapshotCodec<Object>()
+		{
+			public int getVersion()
+			{
+				return 0;
+			}
+
+			public void encode(Object state, SnapshotEncoder out)
+					throws IOException
+			{
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				ObjectOutputStream oos = new ObjectOutputStream(bytes);
+				oos.writeObject(state);
+				oos.close();
+				out.writeBytes(bytes.toByteArray());
+			}
+
+			public Object decode(SnapshotDecoder in, int version)
+					throws IOException
+			{
+				ObjectInputStream ois = new ObjectInputStream(
+						new ByteArrayInputStream(in.readBytes()));
+				try
+				{
+					return ois.readObject();
+				}
+				catch (ClassNotFoundException e)
+				{
+					throw new IOException(e);
+				}
+				finally
+				{
+					ois.close();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Register the codec of the specified type and its subtypes. The codec id
+	 * is written into the snapshots, so it should never be changed once the
+	 * snapshots are saved.
+	 * 
+	 * @param id
+	 *            the codec id
+	 * @param type
+	 *            the type of state
+	 * @param codec
+	 *            the codec
+	 */
+	public synchronized <T> void register(String id, Class<T> type,
+			SnapshotCodec<? super T> codec)
+	{
+		if (codecs.containsKey(id) && !id.equals(ids.get(type)))
+			throw new IllegalArgumentException(String.format(
+					Messages.getString("SnapshotEngine.0"), id)); //$NON-NLS-1$
+		codecs.put(id, codec);
+		if (ids.put(type, id) == null)
+			types.add(type);
+	}
+
+	/**
+	 * Returns the codec id of the state.
+	 * 
+	 * @param state
+	 *            the state
+	 * @return the codec id
+	 */
+	protected synchronized String idOf(Object state)
+	{
+		if (state == null)
+			return "null"; //$NON-NLS-1$
+		Class c = state.getClass();
+		String id = ids.get(c);
+		if (id != null)
+			return id;
+		for (Class t : types)
+			if (t.isAssignableFrom(c))
+			{
+				// cache the subtype
+				id = ids.get(t);
+				ids.put(c, id);
+				return id;
+			}
+		return SERIAL;
+	}
+
+	/**
+	 * Returns the codec of the id.
+	 * 
+	 * @param id
+	 *            the codec id
+	 * @return the codec, or <code>null</code> if unknown
+	 */
+	protected synchronized SnapshotCodec codecOf(String id)
+	{
+		return codecs.get(id);
+	}
+
+	/**
+	 * Write the header of a snapshot.
+	 * 
+	 * @param out
+	 *            the encoder
+	 * @param entries
+	 *            the amount of entries
+	 */
+	public void writeHeader(SnapshotEncoder out, int entries)
+	{
+		out.writeInt(MAGIC);
+		out.writeUnsigned(FORMAT);
+		out.writeUnsigned(entries);
+	}
+
+	/**
+	 * Write an entry of a snapshot.
+	 * 
+	 * @param out
+	 *            the encoder
+	 * @param key
+	 *            the key of the component
+	 * @param state
+	 *            the state extracted from the component
+	 * @param scratch
+	 *            the encoder reused to encode the payload
+	 * @throws IOException
+	 *             if the state cannot be written
+	 */
+	public void writeEntry(SnapshotEncoder out, String key, Object state,
+			SnapshotEncoder scratch) throws IOException
+	{
+		out.writeString(key);
+		writeState(out, state, scratch);
+	}
+
+	/**
+	 * Write a state without key, which is the codec id, the codec version and
+	 * the length-prefixed payload.
+	 * 
+	 * @param out
+	 *            the encoder
+	 * @param state
+	 *            the state
+	 * @param scratch
+	 *            the encoder reused to encode the payload
+	 * @throws IOException
+	 *             if the state cannot be written
+	 */
+	public void writeState(SnapshotEncoder out, Object state,
+			SnapshotEncoder scratch) throws IOException
+	{
+		String id = idOf(state);
+		SnapshotCodec codec = codecOf(id);
+		scratch.reset();
+		codec.encode(state, scratch);
+		out.writeString(id);
+		out.writeUnsigned(codec.getVersion());
+		out.writeUnsigned(scratch.size());
+		out.writeRaw(scratch.toByteBuffer());
+	}
+
+	/**
+	 * Write the snapshot of the components.
+	 * 
+	 * @param components
+	 *            the components by their keys
+	 * @param out
+	 *            the encoder
+	 * @throws IOException
+	 *             if a state cannot be written
+	 */
+	public void write(Map<String, ? extends Recreatable> components,
+			SnapshotEncoder out) throws IOException
+	{
+		SnapshotEncoder scratch = new SnapshotEncoder();
+		writeHeader(out, components.size());
+		for (Entry<String, ? extends Recreatable> e : components.entrySet())
+			writeEntry(out, e.getKey(), e.getValue().extract(), scratch);
+	}
+
+	/**
+	 * Returns the snapshot of the components.
+	 * 
+	 * @param components
+	 *            the components by their keys
+	 * @return the snapshot
+	 * @throws IOException
+	 *             if a state cannot be written
+	 */
+	public byte[] save(Map<String, ? extends Recreatable> components)
+			throws IOException
+	{
+		SnapshotEncoder out = new SnapshotEncoder();
+		write(components, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Read the header of a snapshot.
+	 * 
+	 * @param in
+	 *            the decoder
+	 * @return the amount of entries
+	 * @throws IOException
+	 *             if it is not a snapshot of a known format
+	 */
+	public int readHeader(SnapshotDecoder in) throws IOException
+	{
+		if (in.readInt() != MAGIC)
+			throw new StreamCorruptedException(
+					Messages.getString("SnapshotEngine.1")); //$NON-NLS-1$
+		int format = in.readUnsigned();
+		if (format != FORMAT)
+			throw new StreamCorruptedException(String.format(
+					Messages.getString("SnapshotEngine.2"), format)); //$NON-NLS-1$
+		return in.readUnsigned();
+	}
+
+	/**
+	 * Read an entry of a snapshot without decoding its payload.
+	 * 
+	 * @param in
+	 *            the decoder
+	 * @return the entry
+	 * @throws IOException
+	 *             if the entry is malformed
+	 */
+	public Snapshot readEntry(SnapshotDecoder in) throws IOException
+	{
+		return readState(in, in.readString());
+	}
+
+	/**
+	 * Read a state written by
+	 * {@link #writeState(SnapshotEncoder, Object, SnapshotEncoder)} without
+	 * decoding its payload.
+	 * 
+	 * @param in
+	 *            the decoder
+	 * @param key
+	 *            the key of the component
+	 * @return the entry
+	 * @throws IOException
+	 *             if the state is malformed
+	 */
+	public Snapshot readState(SnapshotDecoder in, String key)
+			throws IOException
+	{
+		String id = in.readString();
+		int version = in.readUnsigned();
+		return new Snapshot(key, id, version, in.slice(in.readUnsigned()));
+	}
+
+	/**
+	 * Read all the entries of a snapshot without decoding their payloads.
+	 * 
+	 * @param buffer
+	 *            the snapshot
+	 * @return the entries
+	 * @throws IOException
+	 *             if the snapshot is malformed
+	 */
+	public List<Snapshot> scan(ByteBuffer buffer) throws IOException
+	{
+		SnapshotDecoder in = new SnapshotDecoder(buffer);
+		int n = readHeader(in);
+		List<Snapshot> entries = new ArrayList(n);
+		for (int i = 0; i < n; i++)
+			entries.add(readEntry(in));
+		return entries;
+	}
+
+	/**
+	 * Decode the payload of the entry. This method is thread safe.
+	 * 
+	 * @param entry
+	 *            the entry
+	 * @return the state
+	 * @throws IOException
+	 *             if the codec of the entry is unknown or the payload is
+	 *             malformed
+	 */
+	public Object decode(Snapshot entry) throws IOException
+	{
+		SnapshotCodec codec = codecOf(entry.codec);
+		if (codec == null)
+			throw new StreamCorruptedException(String.format(
+					Messages.getString("SnapshotEngine.3"), entry.codec)); //$NON-NLS-1$
+		return codec.decode(new SnapshotDecoder(entry.payload.duplicate()),
+				entry.version);
+	}
+
+	/**
+	 * Returns <code>true</code> if the codec of the entry is known.
+	 * 
+	 * @param entry
+	 *            the entry
+	 * @return <code>true</code> if the entry can be decoded
+	 */
+	public boolean isKnown(Snapshot entry)
+	{
+		return codecOf(entry.codec) != null;
+	}
+
+	/**
+	 * Read the states of a snapshot, the entries of the unknown codecs are
+	 * skipped.
+	 * 
+	 * @param buffer
+	 *            the snapshot
+	 * @return the states by the keys of the components
+	 * @throws IOException
+	 *             if the snapshot is malformed
+	 */
+	public Map<String, Object> read(ByteBuffer buffer) throws IOException
+	{
+		Map<String, Object> states = new LinkedHashMap();
+		for (Snapshot entry : scan(buffer))
+			if (isKnown(entry))
+				states.put(entry.key, decode(entry));
+		return states;
+	}
+
+	/**
+	 * Recreate the components from a snapshot.
+	 * 
+	 * @param snapshot
+	 *            the snapshot
+	 * @param components
+	 *            the components by their keys
+	 * @return the amount of the components recreated
+	 * @throws IOException
+	 *             if the snapshot is malformed
+	 */
+	public int restore(byte[] snapshot,
+			Map<String, ? extends Recreatable> components) throws IOException
+	{
+		int count = 0;
+		for (Entry<String, Object> e : read(ByteBuffer.wrap(snapshot))
+				.entrySet())
+		{
+			Recreatable r = components.get(e.getKey());
+			if (r != null)
+			{
+				r.recreate(e.getValue());
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * The entry of a snapshot, whose payload is not decoded yet.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	public static class Snapshot
+	{
+		/**
+		 * The key of the component.
+		 */
+		protected final String		key;
+		/**
+		 * The codec id.
+		 */
+		protected final String		codec;
+		/**
+		 * The codec version.
+		 */
+		protected final int			version;
+		/**
+		 * The payload.
+		 */
+		protected final ByteBuffer	payload;
+
+		/**
+		 * Construct an instance of <tt>Snapshot</tt>.
+		 * 
+		 * @param key
+		 *            the key of the component
+		 * @param codec
+		 *            the codec id
+		 * @param version
+		 *            the codec version
+		 * @param payload
+		 *            the payload
+		 */
+		public Snapshot(String key, String codec, int version,
+				ByteBuffer payload)
+		{
+			this.key = key;
+			this.codec = codec;
+			this.version = version;
+			this.payload = payload;
+		}
+
+		/**
+		 * Returns the key of the component.
+		 * 
+		 * @return the key
+		 */
+		public String getKey()
+		{
+			return key;
+		}
+
+		/**
+		 * Returns the codec id.
+		 * 
+		 * @return the codec id
+		 */
+		public String getCodec()
+		{
+			return codec;
+		}
+
+		/**
+		 * Returns the codec version.
+		 * 
+		 * @return the codec version
+		 */
+		public int getVersion()
+		{
+			return version;
+		}
+
+		/**
+		 * Returns a read-only view of the payload.
+		 * 
+		 * @return the payload
+		 */
+		public ByteBuffer getPayload()
+		{
+			return payload.asReadOnlyBuffer();
+		}
+	}
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * SnapshotStore.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import com.frank.swing.SnapshotEngine.Snapshot;
+
+/**
+ * The append-only store of the snapshots.
+ * <p>
+ * The <tt>SnapshotStore</tt> keeps the states of the {@link Recreatable}
+ * components in a log file of deltas, each of which is a snapshot written by
+ * {@link SnapshotEngine} with the states changed and the tombstones of the
+ * components removed, guarded by its length and CRC. When the store is
+ * opened, the file is read through its channel and scanned into an index of
+ * the latest entry of each key, the payloads stay in the buffer read until
+ * they are decoded. No mapping of the file is kept, so that the file can be
+ * replaced by a compaction on any platform. A torn delta at the end of the
+ * log, left by a crash, is ignored and overwritten.
+ * </p>
+ * <p>
+ * When the log grows larger than {@link #setCompactionRatio(double) the ratio}
+ * of the live entries, it is compacted into a single delta, which is written
+ * to a temporary file and moved over the log.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class SnapshotStore implements Closeable
+{
+	/**
+	 * The magic number of the log file.
+	 */
+	public static final int					MAGIC			= 0x534E504C;
+	/**
+	 * The size of the log which is never compacted.
+	 */
+	private static final long				MIN_COMPACTION	= 64 * 1024;
+	/**
+	 * The log file.
+	 */
+	protected final File					file;
+	/**
+	 * The engine to write and read the snapshots.
+	 */
+	protected final SnapshotEngine			engine;
+	/**
+	 * The latest entries by their keys.
+	 */
+	private final Map<String, Snapshot>		index			= new LinkedHashMap();
+	/**
+	 * The encoder of the deltas.
+	 */
+	private final SnapshotEncoder			out				= new SnapshotEncoder();
+	/**
+	 * The encoder of the payloads.
+	 */
+	private final SnapshotEncoder			scratch			= new SnapshotEncoder();
+	/**
+	 * The channel of the log file.
+	 */
+	private FileChannel						channel;
+	/**
+	 * The end of the valid deltas.
+	 */
+	private long							size;
+	/**
+	 * The ratio of the log size to the live size to compact.
+	 */
+	private double							ratio			= 2;
+
+	/**
+	 * Open the store of the log file, which is created if not exists.
+	 * 
+	 * @param file
+	 *            the log file
+	 * @param engine
+	 *            the engine to write and read the snapshots
+	 * @throws IOException
+	 *             if the file cannot be opened, or it is not a log of
+	 *             snapshots
+	 */
+	public SnapshotStore(File file, SnapshotEngine engine) throws IOException
+	{
+		this.file = file;
+		this.engine = engine;
+		open();
+	}
+
+	/**
+	 * Open the log file and load the index.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be opened
+	 */
+	private void open() throws IOException
+	{
+		channel = new RandomAccessFile(file, "rw").getChannel(); //$NON-NLS-1$
+		try
+		{
+			scan();
+		}
+		catch (IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Read the log file and load the valid deltas into the index.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be read, or it is not a log of snapshots
+	 */
+	private void scan() throws IOException
+	{
+		index.clear();
+		long length = channel.size();
+		if (length < 4)
+		{
+			ByteBuffer b = ByteBuffer.allocate(4);
+			b.putInt(MAGIC).flip();
+			channel.write(b, 0);
+			size = 4;
+			return;
+		}
+		ByteBuffer log = ByteBuffer.allocate((int) Math.min(length,
+				Integer.MAX_VALUE));
+		for (int n = 0; n >= 0 && log.hasRemaining();)
+			n = channel.read(log, log.position());
+		log.flip();
+		if (log.getInt() != MAGIC)
+			throw new IOException(String.format(
+					Messages.getString("SnapshotStore.0"), file)); //$NON-NLS-1$
+		CRC32 crc = new CRC32();
+		byte[] chunk = new byte[8192];
+		size = 4;
+		while (log.remaining() >= 8)
+		{
+			int n = log.getInt();
+			int sum = log.getInt();
+			if (n <= 0 || n > log.remaining())
+				break;
+			ByteBuffer delta = log.slice();
+			delta.limit(n);
+			crc.reset();
+			for (ByteBuffer b = delta.duplicate(); b.hasRemaining();)
+			{
+				int k = Math.min(chunk.length, b.remaining());
+				b.get(chunk, 0, k);
+				crc.update(chunk, 0, k);
+			}
+			if ((int) crc.getValue() != sum)
+				break;
+			load(delta);
+			log.position(log.position() + n);
+			size = log.position();
+		}
+	}
+
+	/**
+	 * Load a delta into the index.
+	 * 
+	 * @param delta
+	 *            the delta
+	 * @throws IOException
+	 *             if the delta is malformed
+	 */
+	private void load(ByteBuffer delta) throws IOException
+	{
+		for (Snapshot entry : engine.scan(delta))
+			if (entry.codec == null)
+				index.remove(entry.key);
+			else
+				index.put(entry.key, entry);
+	}
+
+	/**
+	 * Append a delta of the changed states and the removed keys to the log.
+	 * 
+	 * @param states
+	 *            the changed states by their keys
+	 * @param removed
+	 *            the removed keys
+	 * @throws IOException
+	 *             if the delta cannot be written
+	 */
+	public synchronized void append(Map<String, ?> states,
+			Collection<String> removed) throws IOException
+	{
+		if (states.isEmpty() && removed.isEmpty())
+			return;
+		out.reset();
+		out.writeInt(0);
+		out.writeInt(0);
+		engine.writeHeader(out, states.size() + removed.size());
+		for (Entry<String, ?> e : states.entrySet())
+			engine.writeEntry(out, e.getKey(), e.getValue(), scratch);
+		for (String key : removed)
+		{
+			out.writeString(key);
+			out.writeString(null);
+			out.writeUnsigned(0);
+			out.writeUnsigned(0);
+		}
+		write(out.toByteArray());
+		if (size > MIN_COMPACTION && size > ratio * getLiveSize())
+			compact();
+	}
+
+	/**
+	 * Fill the length and CRC of the delta, write it at the end of the log,
+	 * and load it into the index.
+	 * 
+	 * @param bytes
+	 *            the delta with 8 bytes reserved ahead
+	 * @throws IOException
+	 *             if the delta cannot be written
+	 */
+	private void write(byte[] bytes) throws IOException
+	{
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 8, bytes.length - 8);
+		ByteBuffer b = ByteBuffer.wrap(bytes);
+		b.putInt(0, bytes.length - 8);
+		b.putInt(4, (int) crc.getValue());
+		for (long p = size; b.hasRemaining();)
+			p += channel.write(b, p);
+		channel.force(false);
+		size += bytes.length;
+		b.position(8);
+		load(b.slice());
+	}
+
+	/**
+	 * Compact the log into a single delta of the live entries.
+	 * 
+	 * @throws IOException
+	 *             if the log cannot be compacted
+	 */
+	public synchronized void compact() throws IOException
+	{
+		out.reset();
+		out.writeInt(0);
+		out.writeInt(0);
+		engine.writeHeader(out, index.size());
+		for (Snapshot entry : index.values())
+		{
+			out.writeString(entry.key);
+			out.writeString(entry.codec);
+			out.writeUnsigned(entry.version);
+			out.writeUnsigned(entry.payload.remaining());
+			out.writeRaw(entry.payload.duplicate());
+		}
+		File tmp = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+		SnapshotStore compacted = null;
+		try
+		{
+			tmp.delete();
+			compacted = new SnapshotStore(tmp, engine);
+			compacted.write(out.toByteArray());
+		}
+		finally
+		{
+			if (compacted != null)
+				compacted.close();
+		}
+		channel.close();
+		try
+		{
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e)
+		{
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally
+		{
+			open();
+		}
+	}
+
+	/**
+	 * Set the ratio of the log size to the live size, beyond which the log is
+	 * compacted after an append. The default ratio is 2.
+	 * 
+	 * @param ratio
+	 *            the compaction ratio, at least 1
+	 */
+	public synchronized void setCompactionRatio(double ratio)
+	{
+		this.ratio = Math.max(1, ratio);
+	}
+
+	/**
+	 * Returns the size of the log in bytes.
+	 * 
+	 * @return the log size
+	 */
+	public synchronized long size()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns the approximate size of the live entries in bytes.
+	 * 
+	 * @return the live size
+	 */
+	public synchronized long getLiveSize()
+	{
+		long live = 4;
+		for (Snapshot entry : index.values())
+			live += entry.payload.remaining() + entry.key.length()
+					+ entry.codec.length() + 8;
+		return live;
+	}
+
+	/**
+	 * Returns the keys of the live entries.
+	 * 
+	 * @return the keys
+	 */
+	public synchronized Set<String> keys()
+	{
+		return Collections.unmodifiableSet(index.keySet());
+	}
+
+	/**
+	 * Returns a copy of the latest entries, whose payloads are not decoded
+	 * yet. The entries can be decoded by
+	 * {@link SnapshotEngine#decode(Snapshot)} in any thread.
+	 * 
+	 * @return the entries
+	 */
+	public synchronized List<Snapshot> entries()
+	{
+		return new ArrayList(index.values());
+	}
+
+	/**
+	 * Returns <code>true</code> if the store has the state of the key.
+	 * 
+	 * @param key
+	 *            the key of the component
+	 * @return <code>true</code> if the key is stored
+	 */
+	public synchronized boolean contains(String key)
+	{
+		return index.containsKey(key);
+	}
+
+	/**
+	 * Returns the latest state of the key.
+	 * 
+	 * @param key
+	 *            the key of the component
+	 * @return the state, or <code>null</code> if not stored
+	 * @throws IOException
+	 *             if the state cannot be decoded
+	 */
+	public Object get(String key) throws IOException
+	{
+		Snapshot entry;
+		synchronized (this)
+		{
+			entry = index.get(key);
+		}
+		return entry == null ? null : engine.decode(entry);
+	}
+
+	/**
+	 * Recreate the components from their latest states, the entries of the
+	 * unknown codecs are skipped.
+	 * 
+	 * @param components
+	 *            the components by their keys
+	 * @return the amount of the components recreated
+	 * @throws IOException
+	 *             if a state cannot be decoded
+	 */
+	public int restore(Map<String, ? extends Recreatable> components)
+			throws IOException
+	{
+		int count = 0;
+		for (Snapshot entry : entries())
+		{
+			Recreatable r = components.get(entry.key);
+			if (r != null && engine.isKnown(entry))
+			{
+				r.recreate(engine.decode(entry));
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		channel.close();
+	}
+}
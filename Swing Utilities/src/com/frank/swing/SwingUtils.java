@@ -25,6 +25,7 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
@@ -46,6 +47,11 @@ import javax.swing.text.JTextComponent;
  */
 public class SwingUtils
 {
+	/**
+	 * The pool shared by the background tasks of the library.
+	 */
+	private static ForkJoinPool	sharedPool;
+
 	/**
 	 * Move the specified window to the center of the screen. Cautious, it may
 	 * occupy two different screens if the system has two or more combined
@@ -938,6 +944,40 @@ public class SwingUtils
 		return new Dimension(fm.stringWidth(s), fm.getHeight());
 	}
 
+	/**
+	 * Returns the work-stealing pool shared by the background tasks of the
+	 * library, such as the {@link ProgressExecutor}, the
+	 * {@link WorkspaceRestorer} and the {@link FontCoverageIndex}, which is
+	 * created the first time it is asked for. The threads of the pool are
+	 * daemon threads.
+	 * 
+	 * @return the shared pool
+	 */
+	public static synchronized ForkJoinPool getSharedPool()
+	{
+		if (sharedPool == null)
+			sharedPool = new ForkJoinPool();
+		return sharedPool;
+	}
+
+	/**
+	 * Returns the dimension of the specified string <tt>s</tt> in specified
+	 * font environment, which does not need a graphic environment. The font
+	 * metrics of a font from the {@link FontCache#getDefault() default font
+	 * cache} are shared, so that measuring repeatedly creates no metrics.
+	 * 
+	 * @param f
+	 *            the font environment
+	 * @param s
+	 *            the string to display
+	 * @return the dimension of the string
+	 */
+	public static Dimension stringDimension(Font f, String s)
+	{
+		FontMetrics fm = FontCache.getDefault().getFontMetrics(f);
+		return new Dimension(fm.stringWidth(s), fm.getHeight());
+	}
+
 	/**
 	 * Set the Dock icon for a Mac application.
 	 * <p>
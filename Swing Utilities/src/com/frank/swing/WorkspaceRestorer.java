@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2011, 2020, Frank Jiang and/or its affiliates. All rights
+ * reserved.
+ * WorkspaceRestorer.java is built in 2026-10-19.
+ */
+package com.frank.swing;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.swing.Timer;
+
+import com.frank.swing.SnapshotEngine.Snapshot;
+
+/**
+ * The parallel restorer of a workspace of {@link Recreatable} components.
+ * <p>
+ * The <tt>WorkspaceRestorer</tt> decodes the states of the components from
+ * their snapshot entries on a pool of threads, and applies only the
+ * {@link Recreatable#recreate(Object)} calls in the event dispatch thread, in
+ * batches of at most {@link #setFrameBudget(int) the frame budget} per frame,
+ * so that the user interface keeps responding while restoring. The entries
+ * are decoded and applied in the order of priority: the
+ * {@link #setPriority(Collection) priority keys} first, then the components
+ * showing on the screen, then the rest, so that the visible components appear
+ * before the others are decoded.
+ * </p>
+ * <p>
+ * The restorer is a {@link ProgressControl}: {@link #start()} starts it in the
+ * event dispatch thread, and {@link #terminate()} cancels it. The progress is
+ * reported to a {@link ProgressCountable} by the components applied. The
+ * entries which fail to decode are skipped and recorded in
+ * {@link #getFailures()}.
+ * </p>
+ * 
+ * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+ * @version 1.0.0
+ */
+public class WorkspaceRestorer implements ProgressControl
+{
+	/**
+	 * The engine to decode the entries.
+	 */
+	protected final SnapshotEngine							engine;
+	/**
+	 * The entries to restore.
+	 */
+	protected final Collection<Snapshot>					entries;
+	/**
+	 * The components by their keys.
+	 */
+	protected final Map<String, ? extends Recreatable>		components;
+	/**
+	 * The progress to report to, or <code>null</code>.
+	 */
+	protected ProgressCountable								progress;
+	/**
+	 * The pool to decode the entries, or <code>null</code> for the shared
+	 * pool.
+	 */
+	protected ExecutorService								pool;
+	/**
+	 * The keys restored first.
+	 */
+	protected List<String>									priority	= Collections
+																				.emptyList();
+	/**
+	 * The time budget of a frame in milliseconds.
+	 */
+	protected int											budget		= 8;
+	/**
+	 * The handler called when the restore finished, or <code>null</code>.
+	 */
+	protected Runnable										doneHandler;
+	/**
+	 * The cancellation token.
+	 */
+	private final CancellationToken							token		= new CancellationToken();
+	/**
+	 * The failures by the keys.
+	 */
+	private final Map<String, Exception>					failures	= Collections
+																				.synchronizedMap(new LinkedHashMap());
+	/**
+	 * The decoded states ready to apply, in the order of priority.
+	 */
+	private final PriorityQueue<Decoded>					ready		= new PriorityQueue();
+	/**
+	 * The completion service of the decoding.
+	 */
+	private CompletionService<Decoded>						service;
+	/**
+	 * The timer to apply the states.
+	 */
+	private Timer											timer;
+	/**
+	 * The amount of the entries to restore.
+	 */
+	private int												total;
+	/**
+	 * The amount of the entries completed.
+	 */
+	private int												completed;
+	/**
+	 * The amount of the components restored.
+	 */
+	private int												restored;
+
+	/**
+	 * Construct an instance of <tt>WorkspaceRestorer</tt>.
+	 * 
+	 * @param engine
+	 *            the engine to decode the entries
+	 * @param entries
+	 *            the entries to restore
+	 * @param components
+	 *            the components by their keys
+	 */
+	public WorkspaceRestorer(SnapshotEngine engine,
+			Collection<Snapshot> entries,
+			Map<String, ? extends Recreatable> components)
+	{
+		this.engine = engine;
+		this.entries = entries;
+		this.components = components;
+	}
+
+	/**
+	 * Construct an instance of <tt>WorkspaceRestorer</tt> which restores the
+	 * latest entries of the store.
+	 * 
+	 * @param store
+	 *            the snapshot store
+	 * @param components
+	 *            the components by their keys
+	 */
+	public WorkspaceRestorer(SnapshotStore store,
+			Map<String, ? extends Recreatable> components)
+	{
+		this(store.engine, store.entries(), components);
+	}
+
+	/**
+	 * Set the progress to report to.
+	 * 
+	 * @param progress
+	 *            the progress, or <code>null</code>
+	 */
+	public void setProgress(ProgressCountable progress)
+	{
+		this.progress = progress;
+	}
+
+	/**
+	 * Set the pool to decode the entries, the
+	 * {@link SwingUtils#getSharedPool() shared pool} is used by default.
+	 * 
+	 * @param pool
+	 *            the executor service
+	 */
+	public void setPool(ExecutorService pool)
+	{
+		this.pool = pool;
+	}
+
+	/**
+	 * Set the keys of the components restored first, in order.
+	 * 
+	 * @param keys
+	 *            the priority keys
+	 */
+	public void setPriority(Collection<String> keys)
+	{
+		priority = new ArrayList(keys);
+	}
+
+	/**
+	 * Set the time budget to apply the states in a frame.
+	 * 
+	 * @param millis
+	 *            the frame budget in milliseconds
+	 */
+	public void setFrameBudget(int millis)
+	{
+		budget = Math.max(1, millis);
+	}
+
+	/**
+	 * Set the handler called in the event dispatch thread when the restore
+	 * finished or is cancelled.
+	 * 
+	 * @param handler
+	 *            the done handler
+	 */
+	public void setDoneHandler(Runnable handler)
+	{
+		doneHandler = handler;
+	}
+
+	/**
+	 * Returns the rank of the component, the lower is restored earlier.
+	 * 
+	 * @param key
+	 *            the key of the component
+	 * @param component
+	 *            the component
+	 * @return the rank
+	 */
+	protected int rank(String key, Recreatable component)
+	{
+		int i = priority.indexOf(key);
+		if (i >= 0)
+			return i;
+		if (component instanceof Component
+				&& ((Component) component).isShowing())
+			return priority.size();
+		return priority.size() + 1;
+	}
+
+	/**
+	 * Start to restore. This method should be called in the event dispatch
+	 * thread.
+	 * 
+	 * @see com.frank.swing.ProgressControl#start()
+	 */
+	@Override
+	public void start()
+	{
+		List<Decoded> order = new ArrayList();
+		for (Snapshot entry : entries)
+		{
+			Recreatable component = components.get(entry.key);
+			if (component != null && engine.isKnown(entry))
+				order.add(new Decoded(entry, component, rank(entry.key,
+						component)));
+		}
+		Collections.sort(order);
+		for (int i = 0; i < order.size(); i++)
+			order.get(i).order = i;
+		total = order.size();
+		if (progress != null)
+			progress.progressStart(total);
+		service = new ExecutorCompletionService(
+				pool == null ? SwingUtils.getSharedPool() : pool);
+		for (Decoded d : order)
+			service.submit(d);
+		timer = new Timer(ResizeAdapter.FRAME_DELAY, new ActionListener()
+		{
+			public void actionPerformed(ActionEvent e)
+			{
+				apply();
+			}
+		});
+		timer.setInitialDelay(0);
+		timer.setCoalesce(true);
+		timer.start();
+	}
+
+	/**
+	 * Apply the decoded states in the order of priority until the frame
+	 * budget is used up. This method is called in the event dispatch thread
+	 * once per frame.
+	 */
+	protected void apply()
+	{
+		long deadline = System.nanoTime() + budget * 1000000L;
+		while (!token.isCancelled())
+		{
+			for (Future<Decoded> f; (f = service.poll()) != null;)
+				try
+				{
+					ready.add(f.get());
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				catch (ExecutionException e)
+				{
+					// the decoding catches the exceptions
+				}
+			Decoded d = ready.poll();
+			if (d == null)
+				break;
+			completed++;
+			if (d.failure != null)
+				failures.put(d.entry.key, d.failure);
+			else
+			{
+				d.component.recreate(d.state);
+				restored++;
+			}
+			if (progress != null)
+				progress.progressUpdate();
+			if (System.nanoTime() >= deadline)
+				break;
+		}
+		if (completed == total || token.isCancelled())
+			finish();
+	}
+
+	/**
+	 * Stop the restore and call the done handler.
+	 */
+	private void finish()
+	{
+		timer.stop();
+		ready.clear();
+		if (progress != null)
+			progress.progressStop();
+		if (doneHandler != null)
+			doneHandler.run();
+	}
+
+	/**
+	 * Cancel the restore, the components not restored yet are left
+	 * unchanged.
+	 * 
+	 * @see com.frank.swing.ProgressControl#terminate()
+	 */
+	@Override
+	public void terminate()
+	{
+		token.cancel();
+	}
+
+	/**
+	 * Returns <code>true</code> if the restore finished or is cancelled.
+	 * 
+	 * @return <code>true</code> if done
+	 */
+	public boolean isDone()
+	{
+		return timer != null && !timer.isRunning();
+	}
+
+	/**
+	 * Returns the amount of the components restored.
+	 * 
+	 * @return the amount of the restored components
+	 */
+	public int getRestoredCount()
+	{
+		return restored;
+	}
+
+	/**
+	 * Returns the exceptions of the entries failed to decode.
+	 * 
+	 * @return the failures by the keys
+	 */
+	public Map<String, Exception> getFailures()
+	{
+		return Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#setLength(int)
+	 */
+	@Override
+	public void setLength(int length)
+	{
+		// counted by the entries
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update()
+	 */
+	@Override
+	public void update()
+	{
+		// counted by the entries
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(java.lang.String)
+	 */
+	@Override
+	public void update(String content)
+	{
+		// counted by the entries
+	}
+
+	/**
+	 * @see com.frank.swing.ProgressControl#update(double)
+	 */
+	@Override
+	public void update(double step)
+	{
+		// counted by the entries
+	}
+
+	/**
+	 * The entry decoded in the pool.
+	 * 
+	 * @author <a href="mailto:jiangfan0576@gmail.com">Frank Jiang</a>
+	 * @version 1.0.0
+	 */
+	private class Decoded implements Callable<Decoded>, Comparable<Decoded>
+	{
+		/**
+		 * The entry.
+		 */
+		final Snapshot		entry;
+		/**
+		 * The component to recreate.
+		 */
+		final Recreatable	component;
+		/**
+		 * The rank of the component.
+		 */
+		final int			rank;
+		/**
+		 * The order to restore.
+		 */
+		int					order;
+		/**
+		 * The decoded state.
+		 */
+		Object				state;
+		/**
+		 * The failure of the decoding.
+		 */
+		Exception			failure;
+
+		/**
+		 * Construct an instance of <tt>Decoded</tt>.
+		 * 
+		 * @param entry
+		 *            the entry
+		 * @param component
+		 *            the component to recreate
+		 * @param rank
+		 *            the rank of the component
+		 */
+		Decoded(Snapshot entry, Recreatable component, int rank)
+		{
+			this.entry = entry;
+			this.component = component;
+			this.rank = rank;
+		}
+
+		/**
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		@Override
+		public Decoded call()
+		{
+			if (!token.isCancelled())
+				try
+				{
+					state = engine.decode(entry);
+				}
+				catch (Exception e)
+				{
+					failure = e;
+				}
+			return this;
+		}
+
+		/**
+		 * @see java.lang.Comparable#compareTo(java.lang.Object)
+		 */
+		@Override
+		public int compareTo(Decoded o)
+		{
+			return rank != o.rank ? rank < o.rank ? -1 : 1
+					: order < o.order ? -1 : order == o.order ? 0 : 1;
+		}
+	}
+}